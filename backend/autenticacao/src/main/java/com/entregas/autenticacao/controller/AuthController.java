@@ -6,6 +6,7 @@ import com.entregas.autenticacao.dto.LoginRequest;
 import com.entregas.autenticacao.dto.RegisterRequest;
 import com.entregas.autenticacao.dto.ValidationErrorResponse;
 import com.entregas.autenticacao.service.AuthService;
+import com.entregas.autenticacao.util.ValidatedToken;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -78,15 +80,15 @@ public class AuthController {
     @PostMapping("/validate")
     public ResponseEntity<Map<String, Object>> validateToken(@RequestHeader("Authorization") String authHeader) {
         String token = authHeader.replace("Bearer ", "");
-        boolean isValid = authService.validateToken(token);
+        Optional<ValidatedToken> validated = authService.validateToken(token);
         
         Map<String, Object> response = new HashMap<>();
-        response.put("valid", isValid);
+        response.put("valid", validated.isPresent());
         
-        if (isValid) {
-            response.put("userId", authService.getUserIdFromToken(token));
-            response.put("userType", authService.getUserTypeFromToken(token));
-        }
+        validated.ifPresent(claims -> {
+            response.put("userId", claims.getUserId());
+            response.put("userType", claims.getUserType());
+        });
         
         return ResponseEntity.ok(response);
     }
@@ -7,10 +7,13 @@ import com.entregas.autenticacao.exception.AuthenticationException;
 import com.entregas.autenticacao.model.User;
 import com.entregas.autenticacao.repository.UserRepository;
 import com.entregas.autenticacao.util.JwtUtil;
+import com.entregas.autenticacao.util.ValidatedToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 public class AuthService {
 
@@ -77,14 +80,11 @@ public class AuthService {
     }
 
     public AuthResponse refreshToken(String refreshToken) {
-        if (!jwtUtil.validateToken(refreshToken) || !jwtUtil.isRefreshToken(refreshToken)) {
-            throw AuthenticationException.invalidRefreshToken();
-        }
-
-        String email = jwtUtil.extractUsername(refreshToken);
-        Long userId = jwtUtil.extractUserId(refreshToken);
+        ValidatedToken validated = jwtUtil.validate(refreshToken)
+                .filter(ValidatedToken::isRefreshToken)
+                .orElseThrow(AuthenticationException::invalidRefreshToken);
 
-        User user = userRepository.findById(userId)
+        User user = userRepository.findById(validated.getUserId())
                 .orElseThrow(AuthenticationException::userNotFound);
 
         if (!user.isActive()) {
@@ -105,21 +105,7 @@ public class AuthService {
         );
     }
 
-    public boolean validateToken(String token) {
-        return jwtUtil.validateToken(token);
-    }
-
-    public Long getUserIdFromToken(String token) {
-        if (!jwtUtil.validateToken(token)) {
-            throw AuthenticationException.invalidToken();
-        }
-        return jwtUtil.extractUserId(token);
-    }
-
-    public String getUserTypeFromToken(String token) {
-        if (!jwtUtil.validateToken(token)) {
-            throw AuthenticationException.invalidToken();
-        }
-        return jwtUtil.extractUserType(token);
+    public Optional<ValidatedToken> validateToken(String token) {
+        return jwtUtil.validate(token);
     }
-} 
\ No newline at end of file
+}
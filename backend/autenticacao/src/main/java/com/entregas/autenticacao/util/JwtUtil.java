@@ -9,22 +9,38 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
-    private Long expiration;
-
-    @Value("${jwt.refresh-expiration}")
-    private Long refreshExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Long expiration;
+    private final Long refreshExpiration;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.refresh-expiration}") Long refreshExpiration) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.expiration = expiration;
+        this.refreshExpiration = refreshExpiration;
+    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    /**
+     * Verifica assinatura e expiração do token uma única vez e devolve os claims
+     * já extraídos, ou vazio se o token for inválido ou estiver expirado.
+     */
+    public Optional<ValidatedToken> validate(String token) {
+        try {
+            return Optional.of(new ValidatedToken(extractAllClaims(token)));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     public String extractUsername(String token) {
@@ -41,15 +57,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String generateToken(String username, Long userId, String userType) {
@@ -67,21 +75,18 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject, Long expirationTime) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationTime))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return validate(token).isPresent();
     }
 
     public Long extractUserId(String token) {
@@ -93,11 +98,6 @@ public class JwtUtil {
     }
 
     public Boolean isRefreshToken(String token) {
-        try {
-            String type = extractClaim(token, claims -> claims.get("type", String.class));
-            return "refresh".equals(type);
-        } catch (Exception e) {
-            return false;
-        }
+        return validate(token).map(ValidatedToken::isRefreshToken).orElse(false);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.entregas.autenticacao.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Resultado de um token já verificado (assinatura e expiração), com os claims
+ * usados pelo serviço extraídos de uma única vez.
+ */
+public final class ValidatedToken {
+
+    private final String subject;
+    private final Long userId;
+    private final String userType;
+    private final String type;
+    private final Date expiration;
+
+    ValidatedToken(Claims claims) {
+        this.subject = claims.getSubject();
+        this.userId = claims.get("userId", Long.class);
+        this.userType = claims.get("userType", String.class);
+        this.type = claims.get("type", String.class);
+        this.expiration = claims.getExpiration();
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserType() {
+        return userType;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+}
@@ -0,0 +1,65 @@
+package com.entregas.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara dois resultados JSON do JMH (base e atual) e aponta regressões acima
+ * do limite percentual informado. Termina com código 1 se houver regressão.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.entregas.benchmarks.BenchmarkComparator base.json atual.json [limite%]
+ * </pre>
+ */
+public class BenchmarkComparator {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: BenchmarkComparator <base.json> <atual.json> [limite%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, JsonNode> base = readScores(Path.of(args[0]));
+        Map<String, JsonNode> current = readScores(Path.of(args[1]));
+
+        boolean regression = false;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Base", "Atual", "Delta");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode baseResult = base.get(entry.getKey());
+            if (baseResult == null) {
+                continue;
+            }
+            double baseScore = baseResult.path("primaryMetric").path("score").asDouble();
+            double currentScore = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            double delta = (currentScore - baseScore) / baseScore * 100.0;
+            // Em modo de vazão (ops/tempo) maior é melhor; nos demais, menor é melhor.
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            boolean worse = higherIsBetter ? delta < -threshold : delta > threshold;
+            regression |= worse;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey().replace("com.entregas.benchmarks.", ""), baseScore, currentScore, delta,
+                    unit, worse ? "  REGRESSÃO" : "");
+        }
+        System.exit(regression ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> readScores(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            String key = result.path("benchmark").asText() + ":" + result.path("mode").asText();
+            JsonNode params = result.path("params");
+            if (!params.isMissingNode()) {
+                key += params.toString();
+            }
+            results.put(key, result);
+        }
+        return results;
+    }
+}
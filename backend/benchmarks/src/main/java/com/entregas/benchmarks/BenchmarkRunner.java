@@ -0,0 +1,70 @@
+package com.entregas.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Ponto de entrada do jar de benchmarks. Aceita as mesmas opções do
+ * {@code org.openjdk.jmh.Main}; quando nenhum arquivo de resultado é informado
+ * ({@code -rff}), grava o resultado em JSON em
+ * {@code results/jmh-<commit>-<data>.json} para comparação entre commits.
+ */
+public class BenchmarkRunner {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getResult().hasValue()) {
+            if (!commandLine.getResultFormat().hasValue()) {
+                options.resultFormat(ResultFormatType.JSON);
+            }
+        } else {
+            Path resultsDir = Path.of("results");
+            Files.createDirectories(resultsDir);
+            String fileName = "jmh-" + currentCommit() + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".json";
+            options.resultFormat(ResultFormatType.JSON)
+                    .result(resultsDir.resolve(fileName).toString());
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static String currentCommit() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String commit = reader.readLine();
+                if (process.waitFor() == 0 && commit != null && !commit.isBlank()) {
+                    return commit.trim();
+                }
+            }
+        } catch (IOException e) {
+            // git indisponível: usa o identificador genérico
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "local";
+    }
+}
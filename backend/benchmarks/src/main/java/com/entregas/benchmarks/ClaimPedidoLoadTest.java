@@ -0,0 +1,164 @@
+package com.entregas.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Teste de carga da reivindicação de pedidos contra um serviço de pedidos em
+ * execução. Em cada rodada cria um pedido e dispara {@code motoristas}
+ * reivindicações simultâneas, cada uma com um motorista diferente. Verifica que
+ * exatamente uma foi aceita e que o pedido ficou com o motorista vencedor, e
+ * informa vazão e latência das reivindicações. Termina com código 1 se alguma
+ * rodada tiver zero ou mais de um vencedor.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.entregas.benchmarks.ClaimPedidoLoadTest [url] [motoristas] [rodadas]
+ * </pre>
+ */
+public class ClaimPedidoLoadTest {
+
+    private static final String DEFAULT_URL = "http://localhost:8082";
+    private static final int DEFAULT_CLAIMERS = 50;
+    private static final int DEFAULT_ROUNDS = 20;
+    private static final String AUTHORIZATION = "Bearer load-test";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final int claimers;
+
+    ClaimPedidoLoadTest(String baseUrl, int claimers) {
+        this.baseUrl = baseUrl;
+        this.claimers = claimers;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(claimers))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : DEFAULT_URL;
+        int claimers = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLAIMERS;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ROUNDS;
+
+        ClaimPedidoLoadTest loadTest = new ClaimPedidoLoadTest(url, claimers);
+        ExecutorService executor = Executors.newFixedThreadPool(claimers);
+        List<Long> latenciesNanos = new ArrayList<>(claimers * rounds);
+        int failedRounds = 0;
+        long totalNanos = 0;
+        try {
+            for (int round = 1; round <= rounds; round++) {
+                long pedidoId = loadTest.createPedido(round);
+                long start = System.nanoTime();
+                List<ClaimResult> results = loadTest.claimConcurrently(executor, pedidoId, round);
+                totalNanos += System.nanoTime() - start;
+
+                List<ClaimResult> winners = results.stream().filter(ClaimResult::won).toList();
+                Long assigned = loadTest.assignedMotorista(pedidoId);
+                boolean correct = winners.size() == 1 && assigned != null && winners.get(0).motoristaId() == assigned;
+                if (!correct) {
+                    failedRounds++;
+                }
+                results.forEach(result -> latenciesNanos.add(result.latencyNanos()));
+                System.out.printf("Rodada %3d: pedido %d, %d vencedor(es), motorista atribuído %s%s%n",
+                        round, pedidoId, winners.size(), assigned, correct ? "" : "  FALHA");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.println();
+        System.out.printf("Reivindicações: %d (%d por rodada, %d rodadas)%n", sorted.length, claimers, rounds);
+        System.out.printf("Vazão: %.1f reivindicações/s%n", sorted.length / (totalNanos / 1e9));
+        System.out.printf("Latência: p50 %.2f ms, p99 %.2f ms, máx %.2f ms%n",
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+        System.out.printf("Rodadas com exatamente um vencedor: %d/%d%n", rounds - failedRounds, rounds);
+        System.exit(failedRounds > 0 ? 1 : 0);
+    }
+
+    private long createPedido(int round) throws Exception {
+        Map<String, Object> body = Map.of(
+                "originAddress", "Origem carga " + round,
+                "destinationAddress", "Destino carga " + round,
+                "originLatitude", -23.5505,
+                "originLongitude", -46.6333,
+                "destinationLatitude", -23.5629,
+                "destinationLongitude", -46.6544,
+                "clienteId", 1L,
+                "clienteNome", "Cliente Carga",
+                "clienteEmail", "carga@example.com",
+                "cargoType", "DOCUMENTOS");
+        HttpResponse<String> response = send("POST", "/api/pedidos", body);
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Falha ao criar pedido: HTTP " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body()).path("id").asLong();
+    }
+
+    private List<ClaimResult> claimConcurrently(ExecutorService executor, long pedidoId, int round) throws Exception {
+        CountDownLatch ready = new CountDownLatch(claimers);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<ClaimResult>> futures = new ArrayList<>(claimers);
+        for (int i = 0; i < claimers; i++) {
+            long motoristaId = (long) round * 100_000 + i + 1;
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                long start = System.nanoTime();
+                HttpResponse<String> response = send("PUT", "/api/pedidos/" + pedidoId + "/claim",
+                        Map.of("motoristaId", motoristaId));
+                return new ClaimResult(motoristaId, response.statusCode() == 200, System.nanoTime() - start);
+            }));
+        }
+        ready.await();
+        go.countDown();
+        List<ClaimResult> results = new ArrayList<>(claimers);
+        for (Future<ClaimResult> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private Long assignedMotorista(long pedidoId) throws Exception {
+        HttpResponse<String> response = send("GET", "/api/pedidos/" + pedidoId, null);
+        JsonNode motoristaId = objectMapper.readTree(response.body()).path("motoristaId");
+        return motoristaId.isNumber() ? motoristaId.asLong() : null;
+    }
+
+    private HttpResponse<String> send(String method, String path, Object body) throws Exception {
+        HttpRequest.BodyPublisher publisher = body != null
+                ? HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))
+                : HttpRequest.BodyPublishers.noBody();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Authorization", AUTHORIZATION)
+                .method(method, publisher)
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1e6;
+    }
+
+    private record ClaimResult(long motoristaId, boolean won, long latencyNanos) {}
+}
@@ -0,0 +1,135 @@
+package com.entregas.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga em malha fechada: {@code concorrencia} clientes repetem a
+ * mesma requisição GET durante {@code duracao} segundos, cada um enviando a
+ * próxima assim que recebe a resposta. Os primeiros segundos são aquecimento e
+ * não entram no resultado. Informa vazão, latência (p50/p90/p99/máx) e erros
+ * por tipo, para comparar o mesmo serviço com e sem virtual threads
+ * ({@code VIRTUAL_THREADS_ENABLED}) no mesmo heap. Termina com código 1 se
+ * nenhuma requisição tiver sucesso.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.entregas.benchmarks.ConcurrencyLoadTest [url] [concorrencia] [duracao-s] [token]
+ * </pre>
+ */
+public class ConcurrencyLoadTest {
+
+    private static final String DEFAULT_URL = "http://localhost:8082/api/pedidos/1";
+    private static final int DEFAULT_CONCURRENCY = 200;
+    private static final int DEFAULT_DURATION_SECONDS = 30;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : DEFAULT_URL;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CONCURRENCY;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DURATION_SECONDS;
+        String token = args.length > 3 && !args[3].isEmpty() ? args[3] : null;
+        int warmupSeconds = Math.min(5, durationSeconds / 4);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(clients)
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<WorkerResult>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> run(httpClient, request, measureFrom, deadline)));
+        }
+
+        long[] latencies = new long[0];
+        Map<String, Integer> errors = new TreeMap<>();
+        for (Future<WorkerResult> future : futures) {
+            WorkerResult result = future.get();
+            long[] merged = Arrays.copyOf(latencies, latencies.length + result.count());
+            System.arraycopy(result.latenciesNanos(), 0, merged, latencies.length, result.count());
+            latencies = merged;
+            result.errors().forEach((type, count) -> errors.merge(type, count, Integer::sum));
+        }
+        workers.shutdownNow();
+        clients.shutdownNow();
+
+        Arrays.sort(latencies);
+        int errorCount = errors.values().stream().mapToInt(Integer::intValue).sum();
+        double seconds = (deadline - measureFrom) / 1e9;
+        System.out.printf("URL: %s%n", url);
+        System.out.printf("Concorrência: %d clientes, %d s (%d s de aquecimento)%n", concurrency, durationSeconds, warmupSeconds);
+        System.out.printf("Requisições com sucesso: %d (%.1f req/s)%n", latencies.length, latencies.length / seconds);
+        System.out.printf("Latência: p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, máx %.1f ms%n",
+                percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.90),
+                percentileMillis(latencies, 0.99), percentileMillis(latencies, 1.0));
+        System.out.printf("Erros: %d %s%n", errorCount, errors.isEmpty() ? "" : errors);
+        System.exit(latencies.length == 0 ? 1 : 0);
+    }
+
+    private static WorkerResult run(HttpClient httpClient, HttpRequest request, long measureFrom, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        Map<String, Integer> errors = new TreeMap<>();
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            String error = null;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2) {
+                    error = "HTTP " + response.statusCode();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                error = e.getClass().getSimpleName();
+            }
+            long end = System.nanoTime();
+            if (now < measureFrom || end > deadline) {
+                continue;
+            }
+            if (error != null) {
+                errors.merge(error, 1, Integer::sum);
+            } else {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = end - now;
+            }
+        }
+        return new WorkerResult(latencies, count, errors);
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1e6;
+    }
+
+    private record WorkerResult(long[] latenciesNanos, int count, Map<String, Integer> errors) {}
+}
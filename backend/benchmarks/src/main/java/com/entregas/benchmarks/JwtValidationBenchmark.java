@@ -0,0 +1,75 @@
+package com.entregas.benchmarks;
+
+import com.entregas.autenticacao.util.JwtUtil;
+import com.entregas.autenticacao.util.ValidatedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o fluxo de {@code /api/auth/validate} antes e depois da validação em
+ * uma única passada: {@code legacyValidateEndpoint} reproduz a implementação
+ * anterior (chave e parser recriados a cada chamada, token verificado cinco
+ * vezes), {@code validateEndpoint} usa {@link JwtUtil#validate(String)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    static final String SECRET = "mySecretKey1234567890123456789012345678901234567890";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET, 86400000L, 604800000L);
+        token = jwtUtil.generateToken("motorista@entregas.com", 42L, "DRIVER");
+    }
+
+    @Benchmark
+    public void validateEndpoint(Blackhole bh) {
+        ValidatedToken validated = jwtUtil.validate(token).orElseThrow();
+        bh.consume(validated.getUserId());
+        bh.consume(validated.getUserType());
+    }
+
+    @Benchmark
+    public void legacyValidateEndpoint(Blackhole bh) {
+        boolean valid = legacyValidateToken(token);
+        if (valid) {
+            if (legacyValidateToken(token)) {
+                bh.consume(legacyClaims(token).get("userId", Long.class));
+            }
+            if (legacyValidateToken(token)) {
+                bh.consume(legacyClaims(token).get("userType", String.class));
+            }
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("motorista@entregas.com", 42L, "DRIVER");
+    }
+
+    private static boolean legacyValidateToken(String token) {
+        return !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
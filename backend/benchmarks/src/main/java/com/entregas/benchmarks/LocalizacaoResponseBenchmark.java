@@ -0,0 +1,70 @@
+package com.entregas.benchmarks;
+
+import com.entregas.rastreamento.dto.LocalizacaoResponse;
+import com.entregas.rastreamento.model.Localizacao;
+import com.entregas.rastreamento.service.LocalizacaoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de cada ping de localização após a gravação: mapeamento para
+ * {@link LocalizacaoResponse} e serialização JSON para a resposta HTTP e para
+ * os tópicos STOMP.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalizacaoResponseBenchmark {
+
+    private static final MethodHandle CONVERT_TO_RESPONSE =
+            PrivateMethods.handle(LocalizacaoService.class, "convertToResponse", Localizacao.class);
+
+    private LocalizacaoService service;
+    private ObjectMapper objectMapper;
+    private Localizacao localizacao;
+    private LocalizacaoResponse response;
+
+    @Setup
+    public void setup() throws Throwable {
+        service = new LocalizacaoService();
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        LocalDateTime now = LocalDateTime.now();
+        localizacao = new Localizacao(42L, -23.5505, -46.6333);
+        localizacao.setId(123456L);
+        localizacao.setAltitude(760.0);
+        localizacao.setSpeed(12.5);
+        localizacao.setHeading(180.0);
+        localizacao.setAccuracy(5.0);
+        localizacao.setPedidoId(1001L);
+        localizacao.setCreatedAt(now);
+        localizacao.setUpdatedAt(now);
+        response = convertToResponse();
+    }
+
+    @Benchmark
+    public LocalizacaoResponse convertToResponse() throws Throwable {
+        return (LocalizacaoResponse) CONVERT_TO_RESPONSE.invoke(service, localizacao);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws Throwable {
+        return objectMapper.writeValueAsBytes(convertToResponse());
+    }
+}
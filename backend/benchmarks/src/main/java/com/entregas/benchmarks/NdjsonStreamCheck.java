@@ -0,0 +1,91 @@
+package com.entregas.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Consome um endpoint NDJSON ({@code /stream}) de um serviço em execução e
+ * confere que cada linha é um objeto JSON e que a quantidade de linhas é a
+ * esperada. Informa o tempo até a primeira linha, o tempo total e a vazão.
+ * Rodando o serviço com heap pequeno ({@code -Xmx96m}) e um resultado de
+ * milhões de linhas, verifica que a resposta é enviada em stream: a versão em
+ * lista do mesmo endpoint termina em {@code OutOfMemoryError}. Termina com
+ * código 1 se a resposta falhar, for truncada ou tiver linhas inválidas.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.entregas.benchmarks.NdjsonStreamCheck [url] [token] [linhas-esperadas]
+ * </pre>
+ */
+public class NdjsonStreamCheck {
+
+    private static final String DEFAULT_URL = "http://localhost:8083/api/localizacoes/driver/9999/stream";
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : DEFAULT_URL;
+        String token = args.length > 1 && !args[1].isEmpty() ? args[1] : null;
+        long expected = args.length > 2 ? Long.parseLong(args[2]) : -1;
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        if (response.statusCode() != 200 || !contentType.startsWith("application/x-ndjson")) {
+            System.out.printf("FALHA: status %d, Content-Type '%s'%n", response.statusCode(), contentType);
+            System.exit(1);
+        }
+
+        long lines = 0;
+        long invalid = 0;
+        long bytes = 0;
+        long firstLineNanos = -1;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (firstLineNanos < 0) {
+                    firstLineNanos = System.nanoTime() - start;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                if (node == null || !node.isObject()) {
+                    invalid++;
+                }
+                lines++;
+                bytes += line.length() + 1;
+            }
+        } catch (Exception e) {
+            System.out.printf("FALHA: resposta interrompida após %d linhas: %s%n", lines, e.getMessage());
+            System.exit(1);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Linhas:           %d%n", lines);
+        System.out.printf("Tamanho:          %.1f MB%n", bytes / 1e6);
+        System.out.printf("Primeira linha:   %.0f ms%n", firstLineNanos < 0 ? 0 : firstLineNanos / 1e6);
+        System.out.printf("Tempo total:      %.1f s%n", seconds);
+        System.out.printf("Vazão:            %.0f linhas/s%n", lines / seconds);
+
+        boolean failed = invalid > 0 || (expected >= 0 && lines != expected);
+        if (invalid > 0) {
+            System.out.printf("FALHA: %d linhas não são objetos JSON%n", invalid);
+        }
+        if (expected >= 0 && lines != expected) {
+            System.out.printf("FALHA: esperadas %d linhas%n", expected);
+        }
+        System.exit(failed ? 1 : 0);
+    }
+}
@@ -0,0 +1,58 @@
+package com.entregas.benchmarks;
+
+import com.entregas.notificacao.config.JsonConfig;
+import com.entregas.notificacao.dto.NotificationRequest;
+import com.entregas.notificacao.service.NotificationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem do corpo da mensagem SQS em {@code NotificationService}: o mapa de
+ * {@code createMessageBody} e a sua serialização JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationMessageBenchmark {
+
+    private static final MethodHandle CREATE_MESSAGE_BODY =
+            PrivateMethods.handle(NotificationService.class, "createMessageBody", NotificationRequest.class);
+
+    private NotificationService service;
+    private ObjectMapper objectMapper;
+    private NotificationRequest request;
+
+    @Setup
+    public void setup() {
+        objectMapper = new JsonConfig().objectMapper();
+        service = new NotificationService();
+        PrivateMethods.setField(service, "objectMapper", objectMapper);
+
+        request = new NotificationRequest(7L, "Pedido aceito por motorista!",
+                "Seu pedido de Rua das Flores, 123 para Av. Paulista, 1000 foi aceito e o motorista está a caminho",
+                "PEDIDO_ACEITO");
+        request.setPriority("HIGH");
+        request.setData(Map.of(
+                "pedidoId", 1001L,
+                "originAddress", "Rua das Flores, 123 - São Paulo, SP",
+                "destinationAddress", "Av. Paulista, 1000 - São Paulo, SP"));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> createMessageBody() throws Throwable {
+        return (Map<String, Object>) CREATE_MESSAGE_BODY.invoke(service, request);
+    }
+
+    @Benchmark
+    public String createMessageJson() throws Throwable {
+        return objectMapper.writeValueAsString(createMessageBody());
+    }
+}
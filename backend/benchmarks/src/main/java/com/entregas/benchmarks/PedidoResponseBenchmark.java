@@ -0,0 +1,62 @@
+package com.entregas.benchmarks;
+
+import com.entregas.pedidos.dto.PedidoResponse;
+import com.entregas.pedidos.model.Pedido;
+import com.entregas.pedidos.model.PedidoStatus;
+import com.entregas.pedidos.service.PedidoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamento entidade → DTO de {@code PedidoService.convertToResponse}, usado
+ * por todos os endpoints de listagem de pedidos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidoResponseBenchmark {
+
+    private static final MethodHandle CONVERT_TO_RESPONSE =
+            PrivateMethods.handle(PedidoService.class, "convertToResponse", Pedido.class);
+
+    private PedidoService service;
+    private Pedido pedido;
+
+    @Setup
+    public void setup() {
+        service = new PedidoService();
+        pedido = new Pedido();
+        pedido.setId(1001L);
+        pedido.setClienteId(7L);
+        pedido.setOriginAddress("Rua das Flores, 123 - São Paulo, SP");
+        pedido.setDestinationAddress("Av. Paulista, 1000 - São Paulo, SP");
+        pedido.setOriginLatitude(-23.5505);
+        pedido.setOriginLongitude(-46.6333);
+        pedido.setDestinationLatitude(-23.5631);
+        pedido.setDestinationLongitude(-46.6544);
+        pedido.setClienteNome("João Silva");
+        pedido.setClienteEmail("joao@email.com");
+        pedido.setClienteTelefone("(11) 99999-9999");
+        pedido.setCargoType("Eletrônicos");
+        pedido.setCargoWeight(2.5);
+        pedido.setCargoDimensions("30x20x10 cm");
+        pedido.setSpecialInstructions("Entregar na portaria");
+        pedido.setStatus(PedidoStatus.IN_TRANSIT);
+        pedido.setMotoristaId(42L);
+        pedido.setEstimatedDistance(5.2);
+        pedido.setEstimatedDuration(18);
+        pedido.setTotalPrice(25.90);
+        pedido.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public PedidoResponse convertToResponse() throws Throwable {
+        return (PedidoResponse) CONVERT_TO_RESPONSE.invoke(service, pedido);
+    }
+}
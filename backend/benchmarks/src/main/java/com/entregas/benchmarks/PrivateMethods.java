@@ -0,0 +1,35 @@
+package com.entregas.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Acesso aos métodos privados dos serviços medidos pelos benchmarks, sem
+ * alterar a visibilidade no código de produção.
+ */
+final class PrivateMethods {
+
+    private PrivateMethods() {}
+
+    static MethodHandle handle(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = type.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Método " + type.getSimpleName() + "." + name + " não encontrado", e);
+        }
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Campo " + name + " não encontrado", e);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.entregas.benchmarks;
+
+import com.entregas.rastreamento.repository.LocalizacaoPartitionRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Verifica os planos das consultas críticas contra os bancos migrados pelo
+ * Flyway. Para cada consulta roda {@code EXPLAIN} e confere que o plano usa o
+ * índice esperado, sem varredura sequencial e sem ordenação (a ordem vem do
+ * índice). Varreduras sequenciais e bitmap são desligadas na sessão para que
+ * tabelas pequenas, como as de desenvolvimento, não troquem o índice por uma
+ * varredura completa: o que se verifica é que a consulta continua podendo ser
+ * respondida pelo índice. Termina com código 1 se algum plano não usar o índice
+ * esperado.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.entregas.benchmarks.QueryPlanCheck [jdbc-url] [usuario] [senha]
+ * </pre>
+ *
+ * A URL é a do servidor, sem o banco (padrão {@code jdbc:postgresql://localhost:5432}).
+ */
+public class QueryPlanCheck {
+
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432";
+    private static final Pattern INDEX_SCAN = Pattern.compile(" using (\\S+) on ");
+    private static final Pattern SORT_NODE = Pattern.compile("(^|->  )Sort ", Pattern.MULTILINE);
+    private static final Pattern DAILY_PARTITION = Pattern.compile("localizacoes_p\\d{8}");
+
+    // Mesmo predicado de PedidoRepository.KEYSET, com um cursor recente.
+    private static final String KEYSET = " AND p.created_at <= LOCALTIMESTAMP" +
+            " AND (p.created_at < LOCALTIMESTAMP OR (p.created_at = LOCALTIMESTAMP AND p.id < 1000))" +
+            " ORDER BY p.created_at DESC, p.id DESC LIMIT 51";
+
+    private static final String LAST_HOUR = "LOCALTIMESTAMP - INTERVAL '1 hour'";
+    private static final LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+    private static final String LAST_MONTH = "LOCALTIMESTAMP - INTERVAL '30 days' AND LOCALTIMESTAMP";
+
+    // Subconsulta de NotificationOutboxRepository.claimReady.
+    private static final String OUTBOX_CLAIM = "SELECT o.id FROM notification_outbox o" +
+            " WHERE o.status = 'PENDING' AND o.next_attempt_at <= LOCALTIMESTAMP" +
+            " AND NOT EXISTS (SELECT 1 FROM notification_outbox e WHERE e.pedido_id = o.pedido_id AND e.status = 'PENDING' AND e.id < o.id)" +
+            " ORDER BY o.next_attempt_at, o.id LIMIT 100 FOR UPDATE SKIP LOCKED";
+
+    // TrailArchiveRepository.findPedidosIdleSince com idle-after 6h e idle-window 24h.
+    private static final String IDLE_PEDIDOS = "SELECT c.pedido_id FROM (SELECT DISTINCT pedido_id FROM localizacoes" +
+            " WHERE pedido_id IS NOT NULL AND timestamp >= LOCALTIMESTAMP - INTERVAL '30 hours'" +
+            " AND timestamp < LOCALTIMESTAMP - INTERVAL '6 hours') c" +
+            " WHERE NOT EXISTS (SELECT 1 FROM localizacoes n WHERE n.pedido_id = c.pedido_id" +
+            " AND n.timestamp >= LOCALTIMESTAMP - INTERVAL '6 hours') LIMIT 100";
+    private static final LocalDate IDLE_WINDOW_START = LocalDateTime.now().minusHours(30).toLocalDate();
+
+    private static final Map<String, List<PlanExpectation>> CHECKS = new LinkedHashMap<>();
+
+    static {
+        CHECKS.put("pedidos_db", List.of(
+                new PlanExpectation("findPage", "idx_pedidos_created_at_id",
+                        "SELECT p.id FROM pedidos p WHERE TRUE" + KEYSET),
+                new PlanExpectation("findPageByClienteId", "idx_pedidos_cliente_id_created_at",
+                        "SELECT p.id FROM pedidos p WHERE p.cliente_id = 42" + KEYSET),
+                new PlanExpectation("findPageByClienteEmail", "idx_pedidos_cliente_email_created_at",
+                        "SELECT p.id FROM pedidos p WHERE p.cliente_email = 'cliente@example.com'" + KEYSET),
+                new PlanExpectation("findPageByStatus", "idx_pedidos_status_created_at",
+                        "SELECT p.id FROM pedidos p WHERE p.status = 'IN_TRANSIT'" + KEYSET),
+                new PlanExpectation("findPageByMotoristaId", "idx_pedidos_motorista_id_created_at",
+                        "SELECT p.id FROM pedidos p WHERE p.motorista_id = 7" + KEYSET),
+                new PlanExpectation("findPageByClienteIdAndStatus", "idx_pedidos_cliente_id_created_at",
+                        "SELECT p.id FROM pedidos p WHERE p.cliente_id = 42 AND p.status = 'DELIVERED'" + KEYSET),
+                new PlanExpectation("findPageByCreatedAtBetween", "idx_pedidos_created_at_id",
+                        "SELECT p.id FROM pedidos p WHERE p.created_at BETWEEN " + LAST_MONTH + KEYSET),
+                new PlanExpectation("findAvailablePage", "idx_pedidos_available",
+                        "SELECT p.id FROM pedidos p WHERE p.status = 'PENDING' AND p.motorista_id IS NULL" + KEYSET),
+                new PlanExpectation("outbox claimReady", "idx_notification_outbox_pending", OUTBOX_CLAIM),
+                new PlanExpectation("outbox claimReady (ordem do pedido)", "idx_notification_outbox_pending_pedido", OUTBOX_CLAIM)));
+
+        CHECKS.put("rastreamento_db", List.of(
+                new PlanExpectation("findLatestLocationByDriverId", "idx_localizacoes_driver_timestamp",
+                        "SELECT l.id FROM localizacoes l WHERE l.driver_id = 7 AND l.is_active" +
+                                " ORDER BY l.timestamp DESC LIMIT 1"),
+                new PlanExpectation("findLocationsByDriverIdAndTimeRange", "idx_localizacoes_driver_timestamp",
+                        "SELECT l.id FROM localizacoes l WHERE l.driver_id = 7" +
+                                " AND l.timestamp >= " + LAST_HOUR + " ORDER BY l.timestamp DESC", YESTERDAY),
+                new PlanExpectation("findLatestLocationByPedidoId", "idx_localizacoes_pedido_timestamp",
+                        "SELECT l.id FROM localizacoes l WHERE l.pedido_id = 42 AND l.is_active" +
+                                " ORDER BY l.timestamp DESC LIMIT 1"),
+                new PlanExpectation("findLocationsByPedidoIdAndTimeRange", "idx_localizacoes_pedido_timestamp",
+                        "SELECT l.id FROM localizacoes l WHERE l.pedido_id = 42" +
+                                " AND l.timestamp >= " + LAST_HOUR + " ORDER BY l.timestamp DESC", YESTERDAY),
+                new PlanExpectation("findActiveLocationsSince", "idx_localizacoes_active_timestamp",
+                        "SELECT l.id FROM localizacoes l WHERE l.is_active = true" +
+                                " AND l.timestamp >= " + LAST_HOUR + " ORDER BY l.timestamp DESC", YESTERDAY),
+                new PlanExpectation("findPedidosIdleSince", "idx_localizacoes_pedido_timestamp",
+                        IDLE_PEDIDOS, IDLE_WINDOW_START)));
+
+        CHECKS.put("notificacao_db", List.of(
+                new PlanExpectation("findByUserIdOrderBySentAtDesc", "idx_notification_logs_user_sent_at",
+                        "SELECT n.id FROM notification_logs n WHERE n.user_id = 42 ORDER BY n.sent_at DESC"),
+                new PlanExpectation("findByStatusOrderBySentAtDesc", "idx_notification_logs_status_sent_at",
+                        "SELECT n.id FROM notification_logs n WHERE n.status = 'FAILED' ORDER BY n.sent_at DESC"),
+                new PlanExpectation("findByTypeOrderBySentAtDesc", "idx_notification_logs_type_sent_at",
+                        "SELECT n.id FROM notification_logs n WHERE n.type = 'PEDIDO_ACEITO' ORDER BY n.sent_at DESC"),
+                new PlanExpectation("findByDedupKey", "idx_notification_logs_dedup_key",
+                        "SELECT n.id FROM notification_logs n WHERE n.dedup_key = 'PEDIDO_ACEITO:42'"),
+                new PlanExpectation("findByDateRange", "idx_notification_logs_sent_at",
+                        "SELECT n.id FROM notification_logs n WHERE n.sent_at BETWEEN " + LAST_MONTH +
+                                " ORDER BY n.sent_at DESC")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : DEFAULT_URL;
+        String user = args.length > 1 ? args[1] : System.getenv().getOrDefault("DB_USERNAME", "postgres");
+        String password = args.length > 2 ? args[2] : System.getenv().getOrDefault("DB_PASSWORD", "");
+
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, List<PlanExpectation>> entry : CHECKS.entrySet()) {
+            String database = entry.getKey();
+            System.out.println(database);
+            try (Connection connection = DriverManager.getConnection(url + "/" + database, user, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                statement.execute("SET enable_bitmapscan = off");
+                for (PlanExpectation expectation : entry.getValue()) {
+                    String plan = explain(statement, expectation.sql());
+                    String problem = expectation.check(plan, indexesUsed(connection, plan));
+                    System.out.printf("  %-38s %s%n", expectation.name(), problem == null ? "ok (" + expectation.index() + ")" : "FALHA: " + problem);
+                    if (problem != null) {
+                        failures.add(database + " " + expectation.name());
+                        System.out.println(plan.indent(6));
+                    }
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.printf("Consultas verificadas: %d, falhas: %d%n",
+                CHECKS.values().stream().mapToInt(List::size).sum(), failures.size());
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    private static String explain(Statement statement, String sql) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * Índices usados pelo plano. Em tabelas particionadas cada partição tem a sua
+     * cópia do índice, então o nome é trocado pelo índice criado na tabela pai.
+     */
+    private static Set<String> indexesUsed(Connection connection, String plan) throws Exception {
+        Set<String> indexes = new HashSet<>();
+        Matcher matcher = INDEX_SCAN.matcher(plan);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COALESCE(pg_partition_root(?::regclass)::text, ?)")) {
+            while (matcher.find()) {
+                statement.setString(1, matcher.group(1));
+                statement.setString(2, matcher.group(1));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    indexes.add(resultSet.getString(1));
+                }
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * @param partitionsFrom para consultas por intervalo em tabela particionada, o
+     *                       primeiro dia cuja partição pode aparecer no plano
+     */
+    private record PlanExpectation(String name, String index, String sql, LocalDate partitionsFrom) {
+
+        PlanExpectation(String name, String index, String sql) {
+            this(name, index, sql, null);
+        }
+
+        String check(String plan, Set<String> indexes) {
+            if (!indexes.contains(index)) {
+                return "índice " + index + " não usado " + indexes;
+            }
+            if (plan.contains("Seq Scan")) {
+                return "varredura sequencial";
+            }
+            if (SORT_NODE.matcher(plan).find()) {
+                return "ordenação fora do índice";
+            }
+            if (partitionsFrom != null) {
+                Matcher matcher = DAILY_PARTITION.matcher(plan);
+                while (matcher.find()) {
+                    LocalDate day = LocalizacaoPartitionRepository.partitionDay(matcher.group());
+                    if (day != null && day.isBefore(partitionsFrom)) {
+                        return "partição " + matcher.group() + " fora do intervalo não foi descartada";
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.entregas.benchmarks;
+
+import com.entregas.gateway.service.InMemoryRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição do {@link InMemoryRateLimiter} do gateway, medido em
+ * {@code isAllowed} (busca do bucket, compare-and-set, métricas e resposta com
+ * cabeçalhos). {@code allowedSameUser} repete o mesmo usuário,
+ * {@code allowedManyUsers} percorre 10.000 usuários e {@code denied} usa uma
+ * cota já esgotada. Com {@code -t <threads>}, as threads disputam os mesmos
+ * buckets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private InMemoryRateLimiter limiter;
+    private String[] users;
+
+    @Setup
+    public void setup() {
+        limiter = new InMemoryRateLimiter(null, 20, 40, 100_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        limiter.getConfig().put("unlimited", new InMemoryRateLimiter.Config()
+                .setReplenishRate(1_000_000_000)
+                .setBurstCapacity(1_000_000_000));
+        limiter.getConfig().put("exhausted", new InMemoryRateLimiter.Config()
+                .setReplenishRate(0.001)
+                .setBurstCapacity(1));
+        users = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = "user:" + i;
+            limiter.isAllowed("unlimited", users[i]).block();
+        }
+        limiter.isAllowed("exhausted", users[0]).block();
+    }
+
+    @State(Scope.Thread)
+    public static class UserCursor {
+        int next;
+    }
+
+    @Benchmark
+    public RateLimiter.Response allowedSameUser() {
+        return limiter.isAllowed("unlimited", users[0]).block();
+    }
+
+    @Benchmark
+    public RateLimiter.Response allowedManyUsers(UserCursor cursor) {
+        int index = cursor.next;
+        cursor.next = index + 1 == USERS ? 0 : index + 1;
+        return limiter.isAllowed("unlimited", users[index]).block();
+    }
+
+    @Benchmark
+    public RateLimiter.Response denied() {
+        return limiter.isAllowed("exhausted", users[0]).block();
+    }
+}
@@ -0,0 +1,53 @@
+package com.entregas.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substituto do {@code POST /api/auth/validate} que aceita qualquer token e
+ * responde depois de uma latência fixa, sem ocupar thread durante a espera.
+ * Serve para o {@link ConcurrencyLoadTest}: com o serviço de rastreamento em
+ * validação remota e sem cache de tokens, cada requisição fica bloqueada na
+ * chamada ao serviço de autenticação pelo tempo configurado.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.entregas.benchmarks.SlowAuthStub [porta] [latencia-ms]
+ * </pre>
+ */
+public class SlowAuthStub {
+
+    private static final byte[] VALID = "{\"valid\":true,\"userId\":7,\"userType\":\"ADMIN\"}".getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8081;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 100;
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.setExecutor(Executors.newFixedThreadPool(2));
+        server.createContext("/api/auth/validate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            scheduler.schedule(() -> respond(exchange), latencyMillis, TimeUnit.MILLISECONDS);
+        });
+        server.start();
+        System.out.printf("Autenticação simulada em http://localhost:%d/api/auth/validate com %d ms de latência%n", port, latencyMillis);
+    }
+
+    private static void respond(HttpExchange exchange) {
+        try (OutputStream body = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, VALID.length);
+            body.write(VALID);
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+}
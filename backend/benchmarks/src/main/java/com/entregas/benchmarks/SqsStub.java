@@ -0,0 +1,159 @@
+package com.entregas.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQS local mínimo para testar a publicação do serviço de notificações sem AWS.
+ * Atende {@code SendMessage} e {@code SendMessageBatch} no protocolo query (o
+ * usado pelo SDK do serviço), responde depois de uma latência fixa e rejeita
+ * cada entrada com a probabilidade informada. As mensagens são descartadas.
+ * {@code GET /stats} devolve as chamadas recebidas, as mensagens aceitas e o
+ * maior número de chamadas simultâneas.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.entregas.benchmarks.SqsStub [porta] [latencia-ms] [taxa-de-falha]
+ * </pre>
+ *
+ * No serviço de notificações: {@code AWS_SQS_ENDPOINT=http://localhost:<porta>} e
+ * {@code AWS_SQS_QUEUE_URL=http://localhost:<porta>/000000000000/notificacoes}.
+ */
+public class SqsStub {
+
+    private static final AtomicLong sendMessageCalls = new AtomicLong();
+    private static final AtomicLong batchCalls = new AtomicLong();
+    private static final AtomicLong acceptedMessages = new AtomicLong();
+    private static final AtomicLong rejectedMessages = new AtomicLong();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9324;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 20;
+        double failureRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.0;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/stats", SqsStub::stats);
+        server.createContext("/", exchange -> handle(exchange, latencyMillis, failureRate));
+        server.start();
+        System.out.printf("SQS simulado em http://localhost:%d com %d ms de latência e %.0f%% de falhas%n",
+                port, latencyMillis, failureRate * 100);
+    }
+
+    private static void handle(HttpExchange exchange, long latencyMillis, double failureRate) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            Map<String, String> params = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            Thread.sleep(latencyMillis);
+            String action = params.getOrDefault("Action", "");
+            switch (action) {
+                case "SendMessage" -> respond(exchange, 200, sendMessage(params));
+                case "SendMessageBatch" -> respond(exchange, 200, sendMessageBatch(params, failureRate));
+                default -> respond(exchange, 400, "<ErrorResponse><Error><Type>Sender</Type><Code>InvalidAction</Code>"
+                        + "<Message>Ação não suportada: " + action + "</Message></Error><RequestId>stub</RequestId></ErrorResponse>");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static String sendMessage(Map<String, String> params) {
+        sendMessageCalls.incrementAndGet();
+        acceptedMessages.incrementAndGet();
+        return "<SendMessageResponse><SendMessageResult>"
+                + "<MessageId>" + UUID.randomUUID() + "</MessageId>"
+                + "<MD5OfMessageBody>" + md5(params.getOrDefault("MessageBody", "")) + "</MD5OfMessageBody>"
+                + "</SendMessageResult><ResponseMetadata><RequestId>stub</RequestId></ResponseMetadata></SendMessageResponse>";
+    }
+
+    private static String sendMessageBatch(Map<String, String> params, double failureRate) {
+        batchCalls.incrementAndGet();
+        StringBuilder successful = new StringBuilder();
+        StringBuilder failed = new StringBuilder();
+        for (int i = 1; params.containsKey("SendMessageBatchRequestEntry." + i + ".Id"); i++) {
+            String id = params.get("SendMessageBatchRequestEntry." + i + ".Id");
+            String body = params.getOrDefault("SendMessageBatchRequestEntry." + i + ".MessageBody", "");
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                rejectedMessages.incrementAndGet();
+                failed.append("<BatchResultErrorEntry><Id>").append(id).append("</Id><SenderFault>false</SenderFault>")
+                        .append("<Code>InternalError</Code><Message>Falha simulada</Message></BatchResultErrorEntry>");
+            } else {
+                acceptedMessages.incrementAndGet();
+                successful.append("<SendMessageBatchResultEntry><Id>").append(id).append("</Id>")
+                        .append("<MessageId>").append(UUID.randomUUID()).append("</MessageId>")
+                        .append("<MD5OfMessageBody>").append(md5(body)).append("</MD5OfMessageBody></SendMessageBatchResultEntry>");
+            }
+        }
+        return "<SendMessageBatchResponse><SendMessageBatchResult>" + successful + failed
+                + "</SendMessageBatchResult><ResponseMetadata><RequestId>stub</RequestId></ResponseMetadata></SendMessageBatchResponse>";
+    }
+
+    private static void stats(HttpExchange exchange) throws IOException {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sendMessageCalls", sendMessageCalls.get());
+        stats.put("sendMessageBatchCalls", batchCalls.get());
+        stats.put("acceptedMessages", acceptedMessages.get());
+        stats.put("rejectedMessages", rejectedMessages.get());
+        stats.put("maxConcurrentCalls", maxInFlight.get());
+        StringBuilder json = new StringBuilder("{");
+        stats.forEach((key, value) -> json.append(json.length() > 1 ? "," : "").append('"').append(key).append("\":").append(value));
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        byte[] body = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String xml) throws IOException {
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseForm(String form) {
+        Map<String, String> params = new TreeMap<>();
+        for (String pair : form.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String md5(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
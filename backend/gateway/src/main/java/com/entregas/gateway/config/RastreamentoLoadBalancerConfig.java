@@ -0,0 +1,42 @@
+package com.entregas.gateway.config;
+
+import com.entregas.gateway.service.ConsistentHashLoadBalancer;
+import com.entregas.gateway.service.InstanceConnectionTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Instâncias do serviço de rastreamento ({@code lb://rastreamento}) balanceadas
+ * por {@link ConsistentHashLoadBalancer}, para que o WebSocket e as requisições
+ * de um mesmo motorista caiam na mesma instância. Enquanto o broker STOMP e as
+ * últimas posições forem locais, o rastreamento roda com uma única instância.
+ */
+@Configuration
+@LoadBalancerClient(name = "rastreamento", configuration = RastreamentoLoadBalancerConfig.ConsistentHash.class)
+public class RastreamentoLoadBalancerConfig {
+
+    // Sem @Configuration: é registrada apenas no contexto filho do cliente "rastreamento",
+    // que não tem o conversor de Duration do Spring Boot.
+    static class ConsistentHash {
+
+        @Bean
+        public ReactorLoadBalancer<ServiceInstance> consistentHashLoadBalancer(
+                Environment environment,
+                LoadBalancerClientFactory clientFactory,
+                InstanceConnectionTracker connectionTracker,
+                @Value("${gateway.lb.sockjs-session-ttl:10m}") String sockJsSessionTtl) {
+            String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            return new ConsistentHashLoadBalancer(
+                    clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                    serviceId, connectionTracker, DurationStyle.detectAndParse(sockJsSessionTtl));
+        }
+    }
+}
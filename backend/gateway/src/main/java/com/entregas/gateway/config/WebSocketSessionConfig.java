@@ -0,0 +1,25 @@
+package com.entregas.gateway.config;
+
+import com.entregas.gateway.filter.WebSocketSessionTracker;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.socket.server.WebSocketService;
+
+/**
+ * Envolve o {@link WebSocketService} do roteamento WebSocket para que o fim de
+ * cada sessão chegue aos filtros via {@link WebSocketSessionTracker}.
+ */
+@Configuration
+public class WebSocketSessionConfig {
+
+    @Bean
+    public static BeanPostProcessor webSocketSessionTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof WebSocketService service ? WebSocketSessionTracker.decorate(service) : bean;
+            }
+        };
+    }
+}
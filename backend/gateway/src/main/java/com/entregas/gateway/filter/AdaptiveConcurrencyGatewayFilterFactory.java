@@ -0,0 +1,177 @@
+package com.entregas.gateway.filter;
+
+import com.entregas.gateway.service.GradientConcurrencyLimiter;
+import com.entregas.gateway.service.GradientConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita as requisições simultâneas de uma rota ao serviço com um
+ * {@link GradientConcurrencyLimiter}, que se ajusta à latência observada.
+ * Rotas com o mesmo nome de limitador dividem o mesmo limite, o que permite
+ * dar prioridades diferentes a rotas do mesmo serviço. Acima do limite a
+ * requisição é recusada na hora com {@code 503} e {@code Retry-After}, sem
+ * esperar numa fila.
+ *
+ * <pre>
+ * filters:
+ *   - AdaptiveConcurrency=pedidos, CRITICAL
+ * </pre>
+ *
+ * A vaga é liberada quando a resposta começa a ser escrita (o tempo até esse
+ * ponto é a latência amostrada), então respostas em streaming não seguram o
+ * limite enquanto estão abertas.
+ */
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    private static final byte[] OVERLOADED_BODY =
+            "{\"error\":\"Serviço sobrecarregado, tente novamente\",\"status\":\"error\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ConcurrentMap<String, GradientConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry,
+                                                   @Value("${gateway.concurrency.initial-limit:20}") int initialLimit,
+                                                   @Value("${gateway.concurrency.min-limit:4}") int minLimit,
+                                                   @Value("${gateway.concurrency.max-limit:200}") int maxLimit,
+                                                   @Value("${gateway.concurrency.tolerance:1.5}") double tolerance) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("limiter", "priority");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        GradientConcurrencyLimiter limiter = limiters.computeIfAbsent(config.getLimiter(), this::createLimiter);
+        return new ConcurrencyFilter(config.getLimiter(), limiter, config.getPriority());
+    }
+
+    private GradientConcurrencyLimiter createLimiter(String name) {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance);
+        Gauge.builder("gateway.concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                .description("Limite atual de requisições simultâneas ao serviço")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limiter, GradientConcurrencyLimiter::getInFlight)
+                .description("Requisições em andamento no serviço")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    public static class Config {
+
+        private String limiter;
+        private Priority priority = Priority.NORMAL;
+
+        public String getLimiter() {
+            return limiter;
+        }
+
+        public void setLimiter(String limiter) {
+            this.limiter = limiter;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public void setPriority(Priority priority) {
+            this.priority = priority;
+        }
+    }
+
+    private final class ConcurrencyFilter implements GatewayFilter {
+
+        private final String name;
+        private final GradientConcurrencyLimiter limiter;
+        private final Priority priority;
+
+        ConcurrencyFilter(String name, GradientConcurrencyLimiter limiter, Priority priority) {
+            this.name = name;
+            this.limiter = limiter;
+            this.priority = priority;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            if (!limiter.tryAcquire(priority)) {
+                count(exchange, "rejected");
+                return overloaded(exchange.getResponse());
+            }
+            count(exchange, "accepted");
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            ServerHttpResponse response = exchange.getResponse();
+            response.beforeCommit(() -> {
+                if (released.compareAndSet(false, true)) {
+                    HttpStatusCode status = response.getStatusCode();
+                    limiter.release(System.nanoTime() - start, status != null && status.is5xxServerError());
+                }
+                return Mono.empty();
+            });
+            return chain.filter(exchange).doFinally(signal -> {
+                if (released.compareAndSet(false, true)) {
+                    limiter.release(signal == SignalType.CANCEL ? -1 : System.nanoTime() - start,
+                            signal == SignalType.ON_ERROR);
+                }
+            });
+        }
+
+        private void count(ServerWebExchange exchange, String result) {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+            counters.computeIfAbsent(name + '|' + routeId + '|' + result, key -> Counter.builder("gateway.concurrency.requests")
+                    .tag("limiter", name)
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry)).increment();
+        }
+
+        private Mono<Void> overloaded(ServerHttpResponse response) {
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            DataBuffer body = response.bufferFactory().wrap(OVERLOADED_BODY);
+            return response.writeWith(Mono.just(body));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.entregas.gateway.filter;
+
+import com.entregas.gateway.service.InstanceConnectionTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Marca a conexão como aberta na instância escolhida pelo balanceador até o
+ * fim da troca; em WebSocket, até o fim da sessão.
+ */
+@Component
+public class InstanceConnectionFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private InstanceConnectionTracker connectionTracker;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> response = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (response == null || !response.hasServer()) {
+            return chain.filter(exchange);
+        }
+        AtomicInteger active = connectionTracker.counter(response.getServer());
+        active.incrementAndGet();
+        return WebSocketSessionTracker.doFinally(exchange, chain.filter(exchange), signal -> active.decrementAndGet());
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
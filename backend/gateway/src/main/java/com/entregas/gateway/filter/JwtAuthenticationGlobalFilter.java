@@ -0,0 +1,145 @@
+package com.entregas.gateway.filter;
+
+import com.entregas.gateway.service.GatewayTokenVerifier;
+import com.entregas.gateway.service.GatewayTokenVerifier.VerifiedIdentity;
+import com.entregas.gateway.service.IdentityHeaderSigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Verifica o token Bearer uma única vez na borda. Token inválido ou expirado é
+ * respondido com 401 sem chegar ao serviço; token válido segue com a identidade
+ * do usuário em cabeçalhos assinados por {@link IdentityHeaderSigner}.
+ * Cabeçalhos de identidade enviados pelo cliente são sempre descartados.
+ * Requisições sem token seguem sem identidade e cada serviço decide se a rota
+ * exige autenticação. As rotas de {@code skip-paths} (login, refresh) não são
+ * verificadas aqui.
+ */
+@Component
+public class JwtAuthenticationGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+    public static final String IDENTITY_ATTRIBUTE = JwtAuthenticationGlobalFilter.class.getName() + ".identity";
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationGlobalFilter.class);
+    private static final byte[] INVALID_TOKEN_BODY =
+            "{\"error\":\"Token inválido ou expirado\",\"status\":\"error\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final List<PathPattern> skipPaths;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    private GatewayTokenVerifier tokenVerifier;
+
+    @Autowired
+    private IdentityHeaderSigner identityHeaderSigner;
+
+    public JwtAuthenticationGlobalFilter(@Value("${gateway.auth.skip-paths:/api/auth/**}") List<String> skipPaths,
+                                         MeterRegistry meterRegistry) {
+        this.skipPaths = skipPaths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.rejectedCounter = meterRegistry.counter("gateway.auth.rejected");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String token = extractToken(request);
+
+        if (token == null || isSkipped(request)) {
+            return chain.filter(exchange.mutate().request(withoutIdentity(request)).build());
+        }
+
+        VerifiedIdentity identity = tokenVerifier.verify(token);
+        if (identity == null) {
+            rejectedCounter.increment();
+            logger.debug("Rejected invalid token for {} {}", request.getMethod(), request.getPath());
+            return unauthorized(exchange.getResponse());
+        }
+
+        exchange.getAttributes().put(IDENTITY_ATTRIBUTE, identity);
+        String method = request.getMethod().name();
+        String path = request.getURI().getRawPath();
+        long timestamp = System.currentTimeMillis();
+        String signature = identityHeaderSigner.sign(method, path, identity.userId(), identity.userType(), timestamp);
+
+        ServerHttpRequest signed = request.mutate()
+                .headers(headers -> {
+                    removeIdentityHeaders(headers);
+                    headers.set(IdentityHeaderSigner.USER_ID_HEADER, Long.toString(identity.userId()));
+                    headers.set(IdentityHeaderSigner.USER_TYPE_HEADER, identity.userType());
+                    headers.set(IdentityHeaderSigner.TIMESTAMP_HEADER, Long.toString(timestamp));
+                    headers.set(IdentityHeaderSigner.SIGNATURE_HEADER, signature);
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(signed).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private String extractToken(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith("Bearer ") && authorization.length() > 7) {
+            return authorization.substring(7);
+        }
+        return null;
+    }
+
+    private boolean isSkipped(ServerHttpRequest request) {
+        for (PathPattern pattern : skipPaths) {
+            if (pattern.matches(request.getPath().pathWithinApplication())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ServerHttpRequest withoutIdentity(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        if (!headers.containsKey(IdentityHeaderSigner.USER_ID_HEADER)
+                && !headers.containsKey(IdentityHeaderSigner.USER_TYPE_HEADER)
+                && !headers.containsKey(IdentityHeaderSigner.TIMESTAMP_HEADER)
+                && !headers.containsKey(IdentityHeaderSigner.SIGNATURE_HEADER)) {
+            return request;
+        }
+        return request.mutate().headers(this::removeIdentityHeaders).build();
+    }
+
+    private void removeIdentityHeaders(HttpHeaders headers) {
+        headers.remove(IdentityHeaderSigner.USER_ID_HEADER);
+        headers.remove(IdentityHeaderSigner.USER_TYPE_HEADER);
+        headers.remove(IdentityHeaderSigner.TIMESTAMP_HEADER);
+        headers.remove(IdentityHeaderSigner.SIGNATURE_HEADER);
+    }
+
+    private Mono<Void> unauthorized(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        DataBuffer body = response.bufferFactory().wrap(INVALID_TOKEN_BODY);
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,266 @@
+package com.entregas.gateway.filter;
+
+import com.entregas.gateway.service.GatewayTokenVerifier.VerifiedIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Agrupa GETs idênticos e simultâneos de uma rota numa única chamada ao
+ * serviço. A chave é path, query e o escopo de autorização ({@code USER}: o
+ * usuário do token; {@code USER_TYPE}: o tipo do usuário), sempre separando
+ * requisições anônimas das autenticadas. A primeira requisição segue para o
+ * serviço e as que chegam enquanto ela está em andamento recebem uma cópia da
+ * mesma resposta. Com {@code micro-cache-ttl} maior que zero, respostas 200
+ * continuam valendo para novas requisições durante esse intervalo.
+ *
+ * <pre>
+ * filters:
+ *   - RequestCoalescing=USER_TYPE, 500ms
+ * </pre>
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    private static final Set<String> NON_SHAREABLE_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.SET_COOKIE.toLowerCase(),
+            HttpHeaders.VARY.toLowerCase());
+
+    // CORS depende da origem de cada requisição e já é escrito na resposta de
+    // cada uma antes do filtro. A cota do RequestRateLimiter é a de quem chamou
+    // o serviço: respostas compartilhadas não consomem cota nem a informam.
+    private static final List<String> NON_SHAREABLE_HEADER_PREFIXES = List.of("access-control-", "x-ratelimit-");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public RequestCoalescingGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("scope", "microCacheTtl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Antes do NettyWriteResponseFilter, para que a resposta escrita por ele
+        // passe pelo decorator que copia o corpo.
+        return new OrderedGatewayFilter(new CoalescingFilter(config.getScope(), config.getMicroCacheTtl()),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    public enum Scope {
+        USER,
+        USER_TYPE
+    }
+
+    public static class Config {
+
+        private Scope scope = Scope.USER;
+        private Duration microCacheTtl = Duration.ZERO;
+
+        public Scope getScope() {
+            return scope;
+        }
+
+        public void setScope(Scope scope) {
+            this.scope = scope;
+        }
+
+        public Duration getMicroCacheTtl() {
+            return microCacheTtl;
+        }
+
+        public void setMicroCacheTtl(Duration microCacheTtl) {
+            this.microCacheTtl = microCacheTtl;
+        }
+    }
+
+    private record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    private static final class Flight {
+
+        private final CompletableFuture<CachedResponse> response = new CompletableFuture<>();
+        private volatile long expiresAtNanos;
+    }
+
+    private final class CoalescingFilter implements GatewayFilter {
+
+        private final Scope scope;
+        private final Duration microCacheTtl;
+        private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+        CoalescingFilter(Scope scope, Duration microCacheTtl) {
+            this.scope = scope;
+            this.microCacheTtl = microCacheTtl;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            String key = key(exchange);
+            while (true) {
+                Flight flight = flights.get(key);
+                if (flight == null) {
+                    Flight created = new Flight();
+                    if (flights.putIfAbsent(key, created) == null) {
+                        count(exchange, "upstream");
+                        return lead(exchange, chain, key, created);
+                    }
+                    continue;
+                }
+                if (flight.response.isDone()) {
+                    CachedResponse cached = flight.response.getNow(null);
+                    if (cached != null && System.nanoTime() - flight.expiresAtNanos < 0) {
+                        count(exchange, "cached");
+                        return write(exchange.getResponse(), cached);
+                    }
+                    flights.remove(key, flight);
+                    continue;
+                }
+                return Mono.fromFuture(flight.response, true)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(shared -> {
+                            if (shared.isPresent()) {
+                                count(exchange, "coalesced");
+                                return write(exchange.getResponse(), shared.get());
+                            }
+                            count(exchange, "upstream");
+                            return chain.filter(exchange);
+                        });
+            }
+        }
+
+        private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key, Flight flight) {
+            ServerHttpResponse capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    return DataBufferUtils.join(body)
+                            .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                            .flatMap(joined -> {
+                                byte[] bytes = new byte[joined.readableByteCount()];
+                                joined.read(bytes);
+                                DataBufferUtils.release(joined);
+                                HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+                                complete(key, flight, new CachedResponse(status, shareableHeaders(getHeaders()), bytes));
+                                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                            });
+                }
+            };
+            // Respostas em streaming (writeAndFlushWith) e falhas terminam sem
+            // resposta compartilhada: quem estava esperando chama o serviço.
+            return chain.filter(exchange.mutate().response(capturing).build())
+                    .doFinally(signal -> complete(key, flight, null));
+        }
+
+        private void complete(String key, Flight flight, CachedResponse response) {
+            if (flight.response.isDone()) {
+                return;
+            }
+            boolean cacheable = response != null && response.status().value() == 200
+                    && !microCacheTtl.isZero() && !microCacheTtl.isNegative();
+            if (cacheable) {
+                flight.expiresAtNanos = System.nanoTime() + microCacheTtl.toNanos();
+            }
+            flight.response.complete(response);
+            if (cacheable) {
+                Mono.delay(microCacheTtl).subscribe(tick -> flights.remove(key, flight));
+            } else {
+                flights.remove(key, flight);
+            }
+        }
+
+        private Mono<Void> write(ServerHttpResponse response, CachedResponse cached) {
+            response.setStatusCode(cached.status());
+            cached.headers().forEach(response.getHeaders()::put);
+            response.getHeaders().setContentLength(cached.body().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+        }
+
+        private String key(ServerWebExchange exchange) {
+            ServerHttpRequest request = exchange.getRequest();
+            VerifiedIdentity identity = exchange.getAttribute(JwtAuthenticationGlobalFilter.IDENTITY_ATTRIBUTE);
+            String principal;
+            if (identity == null) {
+                principal = "anonymous";
+            } else if (scope == Scope.USER_TYPE) {
+                principal = "type:" + identity.userType();
+            } else {
+                principal = "user:" + identity.userId();
+            }
+            String query = request.getURI().getRawQuery();
+            return principal + " " + request.getURI().getRawPath() + (query != null ? "?" + query : "");
+        }
+
+        private void count(ServerWebExchange exchange, String result) {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+            counters.computeIfAbsent(routeId + " " + result, ignored -> Counter.builder("gateway.coalescing.requests")
+                    .description("GETs atendidos pela chamada ao serviço (upstream), por uma chamada em andamento (coalesced) ou pelo micro-cache (cached)")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry)).increment();
+        }
+
+        private HttpHeaders shareableHeaders(HttpHeaders headers) {
+            HttpHeaders copy = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (isShareable(name.toLowerCase())) {
+                    copy.put(name, List.copyOf(values));
+                }
+            });
+            return HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+
+        private boolean isShareable(String name) {
+            if (NON_SHAREABLE_HEADERS.contains(name)) {
+                return false;
+            }
+            for (String prefix : NON_SHAREABLE_HEADER_PREFIXES) {
+                if (name.startsWith(prefix)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.entregas.gateway.filter;
+
+import com.entregas.gateway.service.GatewayTokenVerifier.VerifiedIdentity;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Chave do rate limiting: o usuário verificado pelo
+ * {@link JwtAuthenticationGlobalFilter} ou, em requisições sem token, o IP do
+ * cliente.
+ */
+@Component
+public class UserKeyResolver implements KeyResolver {
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        VerifiedIdentity identity = exchange.getAttribute(JwtAuthenticationGlobalFilter.IDENTITY_ATTRIBUTE);
+        if (identity != null) {
+            return Mono.just("user:" + identity.userId());
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null) {
+            return Mono.empty();
+        }
+        return Mono.just("ip:" + remoteAddress.getHostString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.entregas.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas por rota das conexões WebSocket roteadas pelo gateway: upgrades
+ * ({@code gateway.websocket.upgrades}), falhas ao abrir ou durante a sessão
+ * ({@code gateway.websocket.failures}), sessões abertas
+ * ({@code gateway.websocket.active}) e duração das sessões
+ * ({@code gateway.websocket.session}).
+ */
+@Component
+public class WebSocketMetricsFilter implements GlobalFilter, Ordered {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    public WebSocketMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!"websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        RouteMetrics metrics = routes.computeIfAbsent(route != null ? route.getId() : "unknown", RouteMetrics::new);
+        return Mono.defer(() -> {
+            metrics.upgrades.increment();
+            metrics.active.incrementAndGet();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return WebSocketSessionTracker.doFinally(exchange, chain.filter(exchange), signal -> {
+                metrics.active.decrementAndGet();
+                sample.stop(metrics.session);
+                if (signal == SignalType.ON_ERROR) {
+                    metrics.failures.increment();
+                }
+            });
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // imediatamente antes do WebsocketRoutingFilter (LOWEST_PRECEDENCE - 1)
+        return Ordered.LOWEST_PRECEDENCE - 2;
+    }
+
+    private final class RouteMetrics {
+
+        private final Counter upgrades;
+        private final Counter failures;
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer session;
+
+        RouteMetrics(String routeId) {
+            this.upgrades = Counter.builder("gateway.websocket.upgrades").tag("route", routeId).register(meterRegistry);
+            this.failures = Counter.builder("gateway.websocket.failures").tag("route", routeId).register(meterRegistry);
+            Gauge.builder("gateway.websocket.active", active, AtomicInteger::get).tag("route", routeId).register(meterRegistry);
+            this.session = Timer.builder("gateway.websocket.session").tag("route", routeId).register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.entregas.gateway.filter;
+
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.server.WebSocketService;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Fim das sessões WebSocket roteadas pelo gateway. A cadeia de filtros termina
+ * logo após o handshake, enquanto a sessão continua aberta; filtros que medem
+ * ou contam conexões usam {@link #doFinally} para agir quando a sessão fecha.
+ */
+public final class WebSocketSessionTracker {
+
+    private static final String ATTRIBUTE = WebSocketSessionTracker.class.getName();
+
+    private final List<Consumer<SignalType>> callbacks = new ArrayList<>();
+    private SignalType endSignal;
+
+    private WebSocketSessionTracker() {
+    }
+
+    /**
+     * Como {@link Mono#doFinally}, mas se a cadeia abriu uma sessão WebSocket
+     * o callback só roda quando a sessão termina.
+     */
+    public static Mono<Void> doFinally(ServerWebExchange exchange, Mono<Void> chain, Consumer<SignalType> onEnd) {
+        return chain.doFinally(signal -> {
+            WebSocketSessionTracker tracker = exchange.getAttribute(ATTRIBUTE);
+            if (tracker == null) {
+                onEnd.accept(signal);
+            } else {
+                tracker.whenEnded(onEnd);
+            }
+        });
+    }
+
+    public static WebSocketService decorate(WebSocketService delegate) {
+        return (exchange, handler) -> delegate.handleRequest(exchange, new WebSocketHandler() {
+            @Override
+            public List<String> getSubProtocols() {
+                return handler.getSubProtocols();
+            }
+
+            @Override
+            public Mono<Void> handle(WebSocketSession session) {
+                WebSocketSessionTracker tracker = new WebSocketSessionTracker();
+                exchange.getAttributes().put(ATTRIBUTE, tracker);
+                return handler.handle(session).doFinally(tracker::ended);
+            }
+        });
+    }
+
+    private synchronized void whenEnded(Consumer<SignalType> callback) {
+        if (endSignal != null) {
+            callback.accept(endSignal);
+        } else {
+            callbacks.add(callback);
+        }
+    }
+
+    private void ended(SignalType signal) {
+        List<Consumer<SignalType>> pending;
+        synchronized (this) {
+            endSignal = signal;
+            pending = List.copyOf(callbacks);
+            callbacks.clear();
+        }
+        pending.forEach(callback -> callback.accept(signal));
+    }
+}
@@ -0,0 +1,245 @@
+package com.entregas.gateway.service;
+
+import com.entregas.gateway.filter.JwtAuthenticationGlobalFilter;
+import com.entregas.gateway.service.GatewayTokenVerifier.VerifiedIdentity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Balanceia as instâncias de um serviço por hashing consistente. A chave de
+ * afinidade é o motorista ({@code driverId} na query, {@code /driver/{id}} no
+ * path ou o próprio usuário quando é um motorista) ou, na falta dele, o pedido
+ * ({@code pedidoId} ou {@code /pedido/{id}}), então a mesma chave cai sempre na
+ * mesma instância enquanto o conjunto de instâncias não muda. Não há
+ * transbordo por carga: o estado de um motorista (posições e assinantes) fica
+ * na instância da chave, e mandar parte das requisições dele para outra o
+ * dividiria. Requisições sem chave vão para a instância com menos conexões.
+ * Requisições de uma sessão SockJS ({@code /ws/{server}/{session}/{transport}})
+ * seguem a instância escolhida na primeira requisição da sessão.
+ *
+ * <p>O rastreamento guarda estado por instância (broker STOMP, última posição
+ * e índice espacial), e um pedido tem chave diferente do motorista que o
+ * atende; por isso ele deve rodar com uma única instância até ter um relay
+ * STOMP e um armazenamento de posições compartilhados. Com mais de uma
+ * instância configurada o balanceador registra um aviso.
+ */
+public class ConsistentHashLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsistentHashLoadBalancer.class);
+
+    private static final int VIRTUAL_NODES = 100;
+    private static final Pattern SOCKJS_SESSION = Pattern.compile("/ws/[^/]+/([^/]+)/[^/]+$");
+    private static final Pattern DRIVER_PATH = Pattern.compile("/driver/(\\d+)");
+    private static final Pattern PEDIDO_PATH = Pattern.compile("/pedido/(\\d+)");
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final InstanceConnectionTracker connectionTracker;
+    private final Cache<String, String> sockJsSessions;
+    private final AtomicInteger leastConnectionsStart = new AtomicInteger();
+    private final AtomicBoolean multipleInstancesWarned = new AtomicBoolean();
+
+    private volatile Ring ring = new Ring(List.of());
+
+    public ConsistentHashLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                      String serviceId,
+                                      InstanceConnectionTracker connectionTracker,
+                                      Duration sockJsSessionTtl) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.connectionTracker = connectionTracker;
+        this.sockJsSessions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(sockJsSessionTtl)
+                .build();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> choose(instances, request));
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, Request<?> request) {
+        if (instances.isEmpty()) {
+            logger.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() > 1 && multipleInstancesWarned.compareAndSet(false, true)) {
+            logger.warn("Service {} has {} instances, but its STOMP broker and latest locations are per instance: "
+                    + "pedido subscribers, /nearby and /viewport only see the instance they reach", serviceId, instances.size());
+        }
+        RequestData data = request.getContext() instanceof RequestDataContext context ? context.getClientRequest() : null;
+        String sessionId = data != null ? sockJsSessionId(data.getUrl().getRawPath()) : null;
+        if (sessionId != null) {
+            String pinned = sockJsSessions.getIfPresent(sessionId);
+            if (pinned != null) {
+                for (ServiceInstance instance : instances) {
+                    if (InstanceConnectionTracker.key(instance).equals(pinned)) {
+                        return new DefaultResponse(instance);
+                    }
+                }
+            }
+        }
+
+        String affinityKey = data != null ? affinityKey(data) : null;
+        ServiceInstance chosen = affinityKey != null
+                ? consistentHash(instances, affinityKey)
+                : leastConnections(instances);
+        if (sessionId != null) {
+            sockJsSessions.put(sessionId, InstanceConnectionTracker.key(chosen));
+        }
+        return new DefaultResponse(chosen);
+    }
+
+    private ServiceInstance consistentHash(List<ServiceInstance> instances, String affinityKey) {
+        Ring current = ringFor(instances);
+        return current.instanceAt(current.indexOf(hash(affinityKey)));
+    }
+
+    private ServiceInstance leastConnections(List<ServiceInstance> instances) {
+        int size = instances.size();
+        int offset = Math.floorMod(leastConnectionsStart.getAndIncrement(), size);
+        ServiceInstance best = null;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            ServiceInstance candidate = instances.get((offset + i) % size);
+            int active = connectionTracker.active(candidate);
+            if (active < bestActive) {
+                best = candidate;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private Ring ringFor(List<ServiceInstance> instances) {
+        Ring current = ring;
+        if (!current.matches(instances)) {
+            current = new Ring(instances);
+            ring = current;
+        }
+        return current;
+    }
+
+    static String affinityKey(RequestData data) {
+        String path = data.getUrl().getRawPath();
+        MultiValueMap<String, String> query = UriComponentsBuilder.fromUri(data.getUrl()).build().getQueryParams();
+        String driverId = query.getFirst("driverId");
+        if (driverId != null) {
+            return "driver:" + driverId;
+        }
+        Matcher driverPath = DRIVER_PATH.matcher(path);
+        if (driverPath.find()) {
+            return "driver:" + driverPath.group(1);
+        }
+        Object identity = data.getAttributes() != null
+                ? data.getAttributes().get(JwtAuthenticationGlobalFilter.IDENTITY_ATTRIBUTE)
+                : null;
+        if (identity instanceof VerifiedIdentity user && "DRIVER".equalsIgnoreCase(user.userType())) {
+            return "driver:" + user.userId();
+        }
+        String pedidoId = query.getFirst("pedidoId");
+        if (pedidoId != null) {
+            return "pedido:" + pedidoId;
+        }
+        Matcher pedidoPath = PEDIDO_PATH.matcher(path);
+        if (pedidoPath.find()) {
+            return "pedido:" + pedidoPath.group(1);
+        }
+        return null;
+    }
+
+    private static String sockJsSessionId(String path) {
+        Matcher matcher = SOCKJS_SESSION.matcher(path);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    // FNV-1a seguido do finalizador do MurmurHash3, para espalhar chaves
+    // parecidas ("driver:1", "driver:2") pelo anel.
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Ring {
+
+        private final List<ServiceInstance> instances;
+        private final List<String> keys;
+        private final long[] points;
+        private final ServiceInstance[] owners;
+
+        Ring(List<ServiceInstance> instances) {
+            this.instances = List.copyOf(instances);
+            this.keys = instances.stream().map(InstanceConnectionTracker::key).toList();
+            long[][] nodes = new long[instances.size() * VIRTUAL_NODES][];
+            for (int i = 0; i < instances.size(); i++) {
+                for (int v = 0; v < VIRTUAL_NODES; v++) {
+                    nodes[i * VIRTUAL_NODES + v] = new long[] {hash(keys.get(i) + "#" + v), i};
+                }
+            }
+            Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+            this.points = new long[nodes.length];
+            this.owners = new ServiceInstance[nodes.length];
+            for (int n = 0; n < nodes.length; n++) {
+                points[n] = nodes[n][0];
+                owners[n] = this.instances.get((int) nodes[n][1]);
+            }
+        }
+
+        boolean matches(List<ServiceInstance> candidates) {
+            if (candidates.size() != keys.size()) {
+                return false;
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                if (!keys.get(i).equals(InstanceConnectionTracker.key(candidates.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int indexOf(long hash) {
+            int index = Arrays.binarySearch(points, hash);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        ServiceInstance instanceAt(int index) {
+            return owners[index % owners.length];
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.entregas.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifica tokens de acesso na borda (assinatura HS256 e expiração) com a
+ * chave do serviço de autenticação, montada uma única vez. Tokens válidos ficam
+ * em cache, limitado em tamanho, até o menor entre o TTL configurado e a
+ * expiração do próprio token. Tokens inválidos não entram no cache.
+ */
+@Service
+public class GatewayTokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayTokenVerifier.class);
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedIdentity> claimsCache;
+
+    public GatewayTokenVerifier(@Value("${jwt.secret}") String secret,
+                                @Value("${gateway.auth.claims-cache.max-size:50000}") long maxSize,
+                                @Value("${gateway.auth.claims-cache.ttl:1h}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtTokenExpiry(ttl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "gateway.jwt-claims");
+    }
+
+    /**
+     * Devolve a identidade do token, ou {@code null} se o token não for um token
+     * de acesso válido.
+     */
+    public VerifiedIdentity verify(String token) {
+        VerifiedIdentity identity = claimsCache.getIfPresent(token);
+        if (identity == null) {
+            identity = parse(token);
+            if (identity == null) {
+                return null;
+            }
+            claimsCache.put(token, identity);
+        }
+        if (identity.expiresAtMillis() <= System.currentTimeMillis()) {
+            claimsCache.invalidate(token);
+            return null;
+        }
+        return identity;
+    }
+
+    private VerifiedIdentity parse(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Long userId = claims.get("userId", Long.class);
+            String userType = claims.get("userType", String.class);
+            if (userId == null || userType == null || "refresh".equals(claims.get("type", String.class))) {
+                logger.debug("Token rejected: missing access token claims");
+                return null;
+            }
+            return new VerifiedIdentity(userId, userType, claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token rejected at the gateway: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public record VerifiedIdentity(long userId, String userType, long expiresAtMillis) {
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<String, VerifiedIdentity> {
+
+        private final long ttlNanos;
+
+        ExpireAtTokenExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedIdentity identity, long currentTime) {
+            long untilExpiration = identity.expiresAtMillis() - System.currentTimeMillis();
+            if (untilExpiration <= 0) {
+                return 0;
+            }
+            return Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(untilExpiration));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedIdentity identity, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, identity, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedIdentity identity, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.entregas.gateway.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de requisições simultâneas a um serviço, ajustado pela latência
+ * observada (algoritmo de gradiente). A latência de cada resposta é comparada
+ * com a média de longo prazo: enquanto ela fica dentro de {@code tolerance}
+ * vezes a média o limite cresce aos poucos (cerca de raiz quadrada do limite
+ * por amostra); quando a latência sobe, o limite cai na proporção do
+ * aumento. Erros do serviço (5xx, falha de conexão) reduzem o limite em 10%.
+ * O limite só cresce se estiver sendo usado, para não subir indefinidamente
+ * com pouco tráfego.
+ *
+ * <p>Cada {@link Priority} pode ocupar uma fração do limite; requisições de
+ * menor prioridade são recusadas antes quando o serviço fica lento.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final int LONG_WINDOW = 600;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRttNanos;
+    private long samples;
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = Math.max(1.0, tolerance);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /** Reserva uma vaga, ou retorna {@code false} se a prioridade já ocupou sua fração do limite. */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga reservada por {@link #tryAcquire}. {@code rttNanos} negativo
+     * libera sem amostra (requisição cancelada pelo cliente).
+     */
+    public void release(long rttNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (rttNanos < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (failed) {
+                limit = clamp(limit * BACKOFF_RATIO);
+                return;
+            }
+            double rtt = Math.max(1, rttNanos);
+            samples++;
+            longRttNanos = samples == 1
+                    ? rtt
+                    : longRttNanos + (rtt - longRttNanos) / Math.min(samples, LONG_WINDOW);
+            // Latência caiu bem abaixo da média: a média se aproxima mais rápido,
+            // para o limite não ficar preso depois de um período lento.
+            if (longRttNanos / rtt > 2) {
+                longRttNanos *= 0.95;
+            }
+            if (inFlightBefore < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rtt));
+            double target = limit * gradient + Math.sqrt(limit);
+            limit = clamp(limit * (1 - SMOOTHING) + target * SMOOTHING);
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.min(maxLimit, Math.max(minLimit, value));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public enum Priority {
+        /** Atualizações de localização e claims: podem ocupar todo o limite. */
+        CRITICAL(1.0),
+        NORMAL(0.9),
+        /** Consultas de histórico: as primeiras a serem recusadas. */
+        LOW(0.6);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.entregas.gateway.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Assina a identidade repassada aos serviços com HMAC-SHA256. A assinatura
+ * cobre método, path, usuário, tipo e instante da assinatura, para que os
+ * cabeçalhos não possam ser reaproveitados em outra rota nem depois de
+ * {@code max-age} nos serviços.
+ */
+@Component
+public class IdentityHeaderSigner {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_TYPE_HEADER = "X-User-Type";
+    public static final String TIMESTAMP_HEADER = "X-Identity-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Identity-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    public IdentityHeaderSigner(@Value("${gateway.identity.secret}") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+            }
+        });
+    }
+
+    public String sign(String method, String path, long userId, String userType, long timestampMillis) {
+        String canonical = method + "\n" + path + "\n" + userId + "\n" + userType + "\n" + timestampMillis;
+        byte[] signature = mac.get().doFinal(canonical.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+}
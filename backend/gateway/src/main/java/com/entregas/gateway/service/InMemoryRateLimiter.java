@@ -0,0 +1,156 @@
+package com.entregas.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador do filtro {@code RequestRateLimiter} mantido na memória do gateway,
+ * com um token bucket por rota e chave (usuário ou IP). Cada bucket é um único
+ * {@link AtomicLong} com o instante em que ele volta a estar cheio (GCRA),
+ * atualizado por compare-and-set, sem locks no caminho da requisição. Os
+ * buckets ficam em caches limitados por rota; um bucket ocioso por
+ * {@code idle-timeout} é descartado, o que equivale a reabastecê-lo.
+ *
+ * <pre>
+ * filters:
+ *   - name: RequestRateLimiter
+ *     args:
+ *       in-memory-rate-limiter.replenish-rate: 20
+ *       in-memory-rate-limiter.burst-capacity: 40
+ * </pre>
+ *
+ * Com várias instâncias do gateway, cada uma aplica a cota separadamente.
+ */
+@Primary
+@Component
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Config defaultConfig;
+    private final long maxKeys;
+    private final Duration idleTimeout;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, RouteBuckets> routes = new ConcurrentHashMap<>();
+
+    public InMemoryRateLimiter(ConfigurationService configurationService,
+                               @Value("${gateway.rate-limit.replenish-rate:20}") double replenishRate,
+                               @Value("${gateway.rate-limit.burst-capacity:40}") long burstCapacity,
+                               @Value("${gateway.rate-limit.max-keys:100000}") long maxKeys,
+                               @Value("${gateway.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                               MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = new Config().setReplenishRate(replenishRate).setBurstCapacity(burstCapacity);
+        this.maxKeys = maxKeys;
+        this.idleTimeout = idleTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        RouteBuckets route = routes.get(routeId);
+        if (route == null) {
+            route = routes.computeIfAbsent(routeId, RouteBuckets::new);
+        }
+        AtomicLong bucket = route.buckets.get(id, key -> new AtomicLong(System.nanoTime()));
+
+        long interval = Math.max(1, (long) (NANOS_PER_SECOND / config.getReplenishRate()));
+        long cost = interval * config.getRequestedTokens();
+        long tolerance = interval * config.getBurstCapacity();
+        long now = System.nanoTime();
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now < 0 ? now : fullAt) + cost;
+            long excess = next - now - tolerance;
+            if (excess > 0) {
+                route.denied.increment();
+                long retryAfterSeconds = Math.max(1, (excess + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+                return Mono.just(new Response(false, Map.of(
+                        REMAINING_HEADER, "0",
+                        "Retry-After", Long.toString(retryAfterSeconds))));
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                route.allowed.increment();
+                long remaining = (tolerance - (next - now)) / interval;
+                return Mono.just(new Response(true, Map.of(REMAINING_HEADER, Long.toString(remaining))));
+            }
+        }
+    }
+
+    private final class RouteBuckets {
+
+        private final Cache<String, AtomicLong> buckets;
+        private final Counter allowed;
+        private final Counter denied;
+
+        RouteBuckets(String routeId) {
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idleTimeout)
+                    .build();
+            this.allowed = Counter.builder("gateway.rate-limit.requests")
+                    .tag("route", routeId)
+                    .tag("result", "allowed")
+                    .register(meterRegistry);
+            this.denied = Counter.builder("gateway.rate-limit.requests")
+                    .tag("route", routeId)
+                    .tag("result", "denied")
+                    .register(meterRegistry);
+        }
+    }
+
+    public static class Config {
+
+        private double replenishRate = 20;
+        private long burstCapacity = 40;
+        private long requestedTokens = 1;
+
+        /** Tokens devolvidos ao bucket por segundo. */
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        /** Tokens que o bucket comporta, ou seja, a rajada máxima. */
+        public long getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(long burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        /** Tokens consumidos por requisição. */
+        public long getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(long requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
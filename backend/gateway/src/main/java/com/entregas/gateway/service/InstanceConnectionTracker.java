@@ -0,0 +1,47 @@
+package com.entregas.gateway.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conta as conexões abertas do gateway com cada instância balanceada: conexões
+ * WebSocket e transportes SockJS durante toda a sessão, requisições HTTP até a
+ * resposta terminar. Usado pelo {@link ConsistentHashLoadBalancer} e exposto
+ * em {@code gateway.lb.active}.
+ */
+@Component
+public class InstanceConnectionTracker {
+
+    private final ConcurrentMap<String, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public static String key(ServiceInstance instance) {
+        return instance.getUri().toString();
+    }
+
+    public int active(ServiceInstance instance) {
+        AtomicInteger count = active.get(key(instance));
+        return count != null ? count.get() : 0;
+    }
+
+    public AtomicInteger counter(ServiceInstance instance) {
+        return active.computeIfAbsent(key(instance), key -> {
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder("gateway.lb.active", count, AtomicInteger::get)
+                    .description("Conexões abertas do gateway com a instância")
+                    .tag("service", String.valueOf(instance.getServiceId()))
+                    .tag("instance", key)
+                    .register(meterRegistry);
+            return count;
+        });
+    }
+}
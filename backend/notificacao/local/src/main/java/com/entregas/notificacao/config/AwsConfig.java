@@ -8,7 +8,10 @@ import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsAsyncClientBuilder;
+
+import java.net.URI;
 
 @Configuration
 public class AwsConfig {
@@ -22,12 +25,18 @@ public class AwsConfig {
     @Value("${aws.secret-access-key:}")
     private String secretAccessKey;
 
+    @Value("${aws.sqs.endpoint:}")
+    private String sqsEndpoint;
+
     @Bean
-    public SqsClient sqsClient() {
-        return SqsClient.builder()
+    public SqsAsyncClient sqsAsyncClient() {
+        SqsAsyncClientBuilder builder = SqsAsyncClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(awsCredentialsProvider())
-                .build();
+                .credentialsProvider(awsCredentialsProvider());
+        if (sqsEndpoint != null && !sqsEndpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(sqsEndpoint));
+        }
+        return builder.build();
     }
 
     @Bean
@@ -41,8 +41,9 @@ public class NotificationController {
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping("/send")
-    public ResponseEntity<NotificationResponse> sendNotification(@Valid @RequestBody NotificationRequest request) {
-        NotificationResponse response = notificationService.sendNotification(request);
+    public ResponseEntity<NotificationResponse> sendNotification(@Valid @RequestBody NotificationRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        NotificationResponse response = notificationService.sendNotification(request, idempotencyKey);
         return ResponseEntity.ok(response);
     }
 
@@ -73,10 +74,11 @@ public class NotificationController {
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping("/send-all")
-    public ResponseEntity<NotificationResponse> sendNotificationToAll(@Valid @RequestBody NotificationRequest request) {
+    public ResponseEntity<NotificationResponse> sendNotificationToAll(@Valid @RequestBody NotificationRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         request.setTargetAudience("ALL_USERS");
         request.setUserId(0L); // Default user ID for general notifications
-        NotificationResponse response = notificationService.sendNotification(request);
+        NotificationResponse response = notificationService.sendNotification(request, idempotencyKey);
         return ResponseEntity.ok(response);
     }
 
@@ -91,10 +93,11 @@ public class NotificationController {
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping("/send-clientes")
-    public ResponseEntity<NotificationResponse> sendNotificationToClientes(@Valid @RequestBody NotificationRequest request) {
+    public ResponseEntity<NotificationResponse> sendNotificationToClientes(@Valid @RequestBody NotificationRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         request.setTargetAudience("CLIENTES");
         request.setUserId(0L); // Default user ID for role-based notifications
-        NotificationResponse response = notificationService.sendNotification(request);
+        NotificationResponse response = notificationService.sendNotification(request, idempotencyKey);
         return ResponseEntity.ok(response);
     }
 
@@ -109,10 +112,11 @@ public class NotificationController {
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping("/send-motoristas")
-    public ResponseEntity<NotificationResponse> sendNotificationToMotoristas(@Valid @RequestBody NotificationRequest request) {
+    public ResponseEntity<NotificationResponse> sendNotificationToMotoristas(@Valid @RequestBody NotificationRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         request.setTargetAudience("MOTORISTAS");
         request.setUserId(0L); // Default user ID for role-based notifications
-        NotificationResponse response = notificationService.sendNotification(request);
+        NotificationResponse response = notificationService.sendNotification(request, idempotencyKey);
         return ResponseEntity.ok(response);
     }
 
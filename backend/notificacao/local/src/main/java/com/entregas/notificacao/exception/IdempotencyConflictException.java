@@ -0,0 +1,12 @@
+package com.entregas.notificacao.exception;
+
+/**
+ * Outra requisição com a mesma {@code Idempotency-Key} ainda está publicando a
+ * notificação. Respondida com {@code 409}; o remetente deve repetir mais tarde.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,8 @@
 package com.entregas.notificacao.filter;
 
 import com.entregas.notificacao.service.AuthValidationService;
+import com.entregas.notificacao.service.GatewayIdentityVerifier;
+import com.entregas.notificacao.service.LocalTokenVerifier;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,18 +28,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private AuthValidationService authValidationService;
 
+    @Autowired
+    private LocalTokenVerifier localTokenVerifier;
+
+    @Autowired
+    private GatewayIdentityVerifier gatewayIdentityVerifier;
+
+    @Value("${auth.validation.mode:remote}")
+    private String validationMode;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
         
         String authHeader = request.getHeader("Authorization");
+        // No modo gateway vale qualquer identidade assinada; nos outros modos só a
+        // de outro serviço (tipo SERVICE), já que usuários chegam com token Bearer.
+        AuthValidationService.TokenValidationResult gatewayIdentity = gatewayIdentityVerifier.validateRequest(request);
+        if (gatewayIdentity != null && !"gateway".equalsIgnoreCase(validationMode)
+                && !GatewayIdentityVerifier.SERVICE_USER_TYPE.equalsIgnoreCase(gatewayIdentity.getUserType())) {
+            gatewayIdentity = null;
+        }
         
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            
+        if (gatewayIdentity != null || (authHeader != null && authHeader.startsWith("Bearer "))) {
             try {
-                AuthValidationService.TokenValidationResult validationResult = 
-                    authValidationService.validateToken(token);
+                AuthValidationService.TokenValidationResult validationResult;
+                if (gatewayIdentity != null) {
+                    validationResult = gatewayIdentity;
+                } else if ("local".equalsIgnoreCase(validationMode) || "gateway".equalsIgnoreCase(validationMode)) {
+                    validationResult = localTokenVerifier.validateToken(authHeader.substring(7));
+                } else {
+                    validationResult = authValidationService.validateToken(authHeader.substring(7));
+                }
                 
                 if (validationResult.isValid()) {
                     String userId = validationResult.getUserId();
@@ -45,6 +45,9 @@ public class NotificationLog {
     @Column(name = "error_message")
     private String errorMessage;
 
+    @Column(name = "dedup_key")
+    private String dedupKey;
+
     public NotificationLog() {}
 
     public NotificationLog(Long userId, String title, String message, String type, String priority) {
@@ -144,4 +147,12 @@ public class NotificationLog {
     public void setErrorMessage(String errorMessage) {
         this.errorMessage = errorMessage;
     }
-} 
\ No newline at end of file
+
+    public String getDedupKey() {
+        return dedupKey;
+    }
+
+    public void setDedupKey(String dedupKey) {
+        this.dedupKey = dedupKey;
+    }
+}
\ No newline at end of file
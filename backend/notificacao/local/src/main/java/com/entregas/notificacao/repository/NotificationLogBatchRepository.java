@@ -0,0 +1,48 @@
+package com.entregas.notificacao.repository;
+
+import com.entregas.notificacao.model.NotificationLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class NotificationLogBatchRepository {
+
+    private static final String NEXT_IDS_SQL = "SELECT nextval('notification_logs_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL = "INSERT INTO notification_logs " +
+            "(id, user_id, title, message, type, priority, status, sqs_message_id, sent_at, error_message) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserva os ids na sequence da tabela (a mesma usada pelos inserts do JPA)
+     * e insere os logs com um único batch JDBC, preenchendo o id de cada log.
+     */
+    public void insertAll(List<NotificationLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            logs.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setLong(1, log.getId());
+            ps.setLong(2, log.getUserId());
+            ps.setString(3, log.getTitle());
+            ps.setString(4, log.getMessage());
+            ps.setString(5, log.getType());
+            ps.setString(6, log.getPriority());
+            ps.setString(7, log.getStatus());
+            ps.setString(8, log.getSqsMessageId());
+            ps.setTimestamp(9, Timestamp.valueOf(log.getSentAt()));
+            ps.setString(10, log.getErrorMessage());
+        });
+    }
+}
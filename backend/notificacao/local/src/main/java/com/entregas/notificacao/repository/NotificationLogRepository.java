@@ -2,12 +2,15 @@ package com.entregas.notificacao.repository;
 
 import com.entregas.notificacao.model.NotificationLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationLogRepository extends JpaRepository<NotificationLog, Long> {
@@ -18,6 +21,20 @@ public interface NotificationLogRepository extends JpaRepository<NotificationLog
 
     List<NotificationLog> findByTypeOrderBySentAtDesc(String type);
 
+    Optional<NotificationLog> findByDedupKey(String dedupKey);
+
+    /**
+     * Retoma a chave de um envio que falhou ou de uma reserva {@code PENDING}
+     * anterior a {@code staleBefore} (instância que caiu no meio do envio).
+     * Retorna 1 se a reserva passou para quem chamou, ou 0 se outra requisição
+     * já a retomou ou o envio terminou.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE NotificationLog n SET n.status = 'PENDING', n.sentAt = :now, n.errorMessage = NULL " +
+           "WHERE n.id = :id AND (n.status = 'FAILED' OR (n.status = 'PENDING' AND n.sentAt < :staleBefore))")
+    int reclaim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
     @Query("SELECT n FROM NotificationLog n WHERE n.sentAt BETWEEN :startDate AND :endDate ORDER BY n.sentAt DESC")
     List<NotificationLog> findByDateRange(@Param("startDate") LocalDateTime startDate, 
                                          @Param("endDate") LocalDateTime endDate);
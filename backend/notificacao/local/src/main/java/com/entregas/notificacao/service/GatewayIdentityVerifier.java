@@ -0,0 +1,87 @@
+package com.entregas.notificacao.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Confere a identidade que o gateway já verificou e repassou em cabeçalhos
+ * assinados com HMAC-SHA256 sobre método, path, usuário, tipo e instante. A
+ * assinatura só é aceita dentro de {@code max-age}, sem chamada de rede. O
+ * serviço de pedidos usa o mesmo formato, com o tipo {@code SERVICE}, para se
+ * identificar nas chamadas do relay da outbox.
+ */
+@Service
+public class GatewayIdentityVerifier {
+
+    public static final String SERVICE_USER_TYPE = "SERVICE";
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayIdentityVerifier.class);
+
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String USER_TYPE_HEADER = "X-User-Type";
+    private static final String TIMESTAMP_HEADER = "X-Identity-Timestamp";
+    private static final String SIGNATURE_HEADER = "X-Identity-Signature";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+    private final long maxAgeMillis;
+
+    public GatewayIdentityVerifier(@Value("${auth.gateway.secret}") String secret,
+                                   @Value("${auth.gateway.max-age:30s}") Duration maxAge) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+            }
+        });
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    /**
+     * Devolve o usuário no mesmo formato de
+     * {@link LocalTokenVerifier#validateToken(String)}, ou {@code null} se a
+     * requisição não trouxer uma identidade assinada válida.
+     */
+    public AuthValidationService.TokenValidationResult validateRequest(HttpServletRequest request) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        String userType = request.getHeader(USER_TYPE_HEADER);
+        String timestamp = request.getHeader(TIMESTAMP_HEADER);
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        if (userId == null || userType == null || timestamp == null || signature == null) {
+            return null;
+        }
+        try {
+            long signedAt = Long.parseLong(timestamp);
+            if (Math.abs(System.currentTimeMillis() - signedAt) > maxAgeMillis) {
+                logger.debug("Gateway identity rejected: signature older than max-age");
+                return null;
+            }
+            String canonical = request.getMethod() + "\n" + request.getRequestURI() + "\n"
+                    + userId + "\n" + userType + "\n" + timestamp;
+            byte[] expected = mac.get().doFinal(canonical.getBytes(StandardCharsets.UTF_8));
+            if (!MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(signature))) {
+                logger.warn("Gateway identity rejected: invalid signature for {}", request.getRequestURI());
+                return null;
+            }
+            return new AuthValidationService.TokenValidationResult(true, String.valueOf(Long.parseLong(userId)), userType, null);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Gateway identity rejected: {}", e.getMessage());
+            return null;
+        }
+    }
+}
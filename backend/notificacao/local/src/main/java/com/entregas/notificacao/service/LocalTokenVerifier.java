@@ -0,0 +1,152 @@
+package com.entregas.notificacao.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Valida tokens localmente (assinatura HS256 e expiração) com a mesma chave do
+ * serviço de autenticação, sem chamada de rede. Os claims já verificados ficam
+ * em cache até a expiração do token. Quando a checagem de revogação está
+ * habilitada, o serviço de autenticação é consultado no máximo uma vez por
+ * intervalo para cada token.
+ */
+@Service
+public class LocalTokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalTokenVerifier.class);
+    private static final AuthValidationService.TokenValidationResult INVALID =
+            new AuthValidationService.TokenValidationResult(false, null, null, "INVALID_TOKEN");
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> claimsCache;
+    private final AuthValidationService authValidationService;
+    private final boolean revocationCheckEnabled;
+    private final long revocationCheckIntervalNanos;
+
+    public LocalTokenVerifier(@Value("${jwt.secret}") String secret,
+                              @Value("${auth.validation.claims-cache.max-size:10000}") long maxSize,
+                              @Value("${auth.validation.claims-cache.ttl:1h}") Duration ttl,
+                              @Value("${auth.validation.revocation-check.enabled:false}") boolean revocationCheckEnabled,
+                              @Value("${auth.validation.revocation-check.interval:5m}") Duration revocationCheckInterval,
+                              AuthValidationService authValidationService) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtTokenExpiry(ttl.toNanos()))
+                .build();
+        this.authValidationService = authValidationService;
+        this.revocationCheckEnabled = revocationCheckEnabled;
+        this.revocationCheckIntervalNanos = revocationCheckInterval.toNanos();
+    }
+
+    public AuthValidationService.TokenValidationResult validateToken(String token) {
+        VerifiedToken verified = claimsCache.getIfPresent(token);
+        if (verified == null) {
+            verified = verify(token);
+            if (verified == null) {
+                return INVALID;
+            }
+            claimsCache.put(token, verified);
+        }
+        if (verified.expiresAtMillis <= System.currentTimeMillis()) {
+            claimsCache.invalidate(token);
+            return INVALID;
+        }
+        if (revocationCheckEnabled && isRevoked(token, verified)) {
+            claimsCache.invalidate(token);
+            return INVALID;
+        }
+        return verified.result;
+    }
+
+    private VerifiedToken verify(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Long userId = claims.get("userId", Long.class);
+            String userType = claims.get("userType", String.class);
+            if (userId == null || userType == null || "refresh".equals(claims.get("type", String.class))) {
+                logger.debug("Token rejected: missing access token claims");
+                return null;
+            }
+            AuthValidationService.TokenValidationResult result =
+                    new AuthValidationService.TokenValidationResult(true, String.valueOf(userId), userType, null);
+            return new VerifiedToken(result, claims.getExpiration().getTime(), System.nanoTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token rejected by local verification: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isRevoked(String token, VerifiedToken verified) {
+        long now = System.nanoTime();
+        if (now - verified.lastRemoteCheckNanos < revocationCheckIntervalNanos) {
+            return false;
+        }
+        AuthValidationService.TokenValidationResult remote = authValidationService.validateToken(token);
+        if (remote.isValid()) {
+            verified.lastRemoteCheckNanos = now;
+            return false;
+        }
+        if (!"INVALID_TOKEN".equals(remote.getErrorCode())) {
+            logger.warn("Revocation check unavailable ({}), keeping locally verified token", remote.getErrorCode());
+            return false;
+        }
+        return true;
+    }
+
+    private static final class VerifiedToken {
+
+        private final AuthValidationService.TokenValidationResult result;
+        private final long expiresAtMillis;
+        private volatile long lastRemoteCheckNanos;
+
+        VerifiedToken(AuthValidationService.TokenValidationResult result, long expiresAtMillis, long verifiedAtNanos) {
+            this.result = result;
+            this.expiresAtMillis = expiresAtMillis;
+            this.lastRemoteCheckNanos = verifiedAtNanos;
+        }
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        private final long ttlNanos;
+
+        ExpireAtTokenExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            long untilExpiration = verified.expiresAtMillis - System.currentTimeMillis();
+            if (untilExpiration <= 0) {
+                return 0;
+            }
+            return Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(untilExpiration));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -3,18 +3,18 @@ package com.entregas.notificacao.service;
 import com.entregas.notificacao.dto.BulkNotificationRequest;
 import com.entregas.notificacao.dto.NotificationRequest;
 import com.entregas.notificacao.dto.NotificationResponse;
+import com.entregas.notificacao.exception.IdempotencyConflictException;
 import com.entregas.notificacao.model.NotificationLog;
+import com.entregas.notificacao.repository.NotificationLogBatchRepository;
 import com.entregas.notificacao.repository.NotificationLogRepository;
+import com.entregas.notificacao.service.SqsBatchPublisher.PublishResult;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
-import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
-import software.amazon.awssdk.services.sqs.model.SqsException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,22 +24,39 @@ import java.util.Map;
 @Service
 public class NotificationService {
 
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final int ERROR_MESSAGE_MAX_LENGTH = 255;
+    private static final Duration PENDING_CLAIM_TIMEOUT = Duration.ofMinutes(2);
+
     @Autowired
-    private SqsClient sqsClient;
+    private SqsBatchPublisher sqsBatchPublisher;
 
     @Autowired
     private NotificationLogRepository notificationLogRepository;
 
+    @Autowired
+    private NotificationLogBatchRepository notificationLogBatchRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
     private AuthValidationService authValidationService;
 
-    @Value("${aws.sqs.queue-url}")
-    private String queueUrl;
-
     public NotificationResponse sendNotification(NotificationRequest request) {
+        return sendNotification(request, null);
+    }
+
+    /**
+     * Com {@code dedupKey}, a chave é reservada com uma linha {@code PENDING}
+     * antes da publicação (índice único em {@code dedup_key}), então duas
+     * requisições com a mesma chave nunca publicam as duas. Uma chave já enviada
+     * devolve o resultado registrado sem publicar de novo; uma chave cujo envio
+     * ainda está em andamento responde {@code 409}. Envios que falharam, ou
+     * reservas abandonadas há mais de {@link #PENDING_CLAIM_TIMEOUT}, são
+     * retomados pela próxima requisição.
+     */
+    public NotificationResponse sendNotification(NotificationRequest request, String dedupKey) {
         NotificationLog log = new NotificationLog(
                 request.getUserId(),
                 request.getTitle(),
@@ -47,48 +64,80 @@ public class NotificationService {
                 request.getType(),
                 request.getPriority()
         );
+        log.setDedupKey(dedupKey);
+        if (dedupKey != null) {
+            NotificationLog sent = claim(log);
+            if (sent != null) {
+                return toResponse(sent);
+            }
+        }
 
+        String messageJson;
         try {
-            Map<String, Object> messageBody = createMessageBody(request);
-            String messageJson = objectMapper.writeValueAsString(messageBody);
-
-            SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
-                    .queueUrl(queueUrl)
-                    .messageBody(messageJson)
-                    .build();
-
-            SendMessageResponse response = sqsClient.sendMessage(sendMessageRequest);
-
-            log.setStatus("SENT");
-            log.setSqsMessageId(response.messageId());
-            notificationLogRepository.save(log);
-
-            NotificationResponse notificationResponse = new NotificationResponse(
-                    log.getId(),
-                    "SENT",
-                    "Notificação enviada com sucesso"
-            );
-            notificationResponse.setMessageId(response.messageId());
-            return notificationResponse;
-
+            messageJson = objectMapper.writeValueAsString(createMessageBody(request));
         } catch (JsonProcessingException e) {
             log.setStatus("FAILED");
-            log.setErrorMessage("Erro ao serializar mensagem: " + e.getMessage());
+            log.setErrorMessage(truncateError("Erro ao serializar mensagem: " + e.getMessage()));
             notificationLogRepository.save(log);
             throw new RuntimeException("Erro ao processar dados da notificação", e);
+        }
 
-        } catch (SqsException e) {
-            log.setStatus("FAILED");
-            log.setErrorMessage("Erro ao enviar para SQS: " + e.getMessage());
-            notificationLogRepository.save(log);
-            throw new RuntimeException("Erro ao enviar notificação para fila", e);
+        PublishResult result = sqsBatchPublisher.publish(List.of(messageJson)).get(0);
+        applyResult(log, result);
+        notificationLogRepository.save(log);
+        if (!result.isSent()) {
+            throw new RuntimeException("Erro ao enviar notificação para fila");
+        }
+        return toResponse(log);
+    }
+
+    /**
+     * Reserva a chave de {@code log}. Retorna o log já enviado com a mesma chave,
+     * ou {@code null} quando a reserva é de quem chamou: {@code log} foi inserido
+     * como {@code PENDING} ou recebeu o id da linha retomada.
+     */
+    private NotificationLog claim(NotificationLog log) {
+        try {
+            notificationLogRepository.saveAndFlush(log);
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            NotificationLog existing = notificationLogRepository.findByDedupKey(log.getDedupKey())
+                    .orElseThrow(() -> e);
+            if ("SENT".equals(existing.getStatus())) {
+                return existing;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (notificationLogRepository.reclaim(existing.getId(), now, now.minus(PENDING_CLAIM_TIMEOUT)) == 0) {
+                throw new IdempotencyConflictException("Notificação com a mesma Idempotency-Key em andamento");
+            }
+            log.setId(existing.getId());
+            log.setSentAt(now);
+            return null;
         }
     }
 
+    /**
+     * Publica as notificações em blocos de {@link #BULK_CHUNK_SIZE} usuários:
+     * cada bloco vai para a fila em lotes paralelos de {@code SendMessageBatch} e
+     * os logs do bloco são gravados com um único batch JDBC. A resposta tem um
+     * item por usuário, na ordem de {@code userIds}.
+     */
     public List<NotificationResponse> sendBulkNotifications(BulkNotificationRequest request) {
-        List<NotificationResponse> responses = new ArrayList<>();
+        List<Long> userIds = request.getUserIds();
+        List<NotificationResponse> responses = new ArrayList<>(userIds.size());
+        for (int start = 0; start < userIds.size(); start += BULK_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(start, Math.min(start + BULK_CHUNK_SIZE, userIds.size()));
+            responses.addAll(sendBulkChunk(request, chunk));
+        }
+        return responses;
+    }
 
-        for (Long userId : request.getUserIds()) {
+    private List<NotificationResponse> sendBulkChunk(BulkNotificationRequest request, List<Long> userIds) {
+        List<NotificationLog> logs = new ArrayList<>(userIds.size());
+        List<NotificationLog> published = new ArrayList<>(userIds.size());
+        List<String> messageBodies = new ArrayList<>(userIds.size());
+
+        for (Long userId : userIds) {
             NotificationRequest individualRequest = new NotificationRequest(
                     userId,
                     request.getTitle(),
@@ -99,22 +148,70 @@ public class NotificationService {
             individualRequest.setData(request.getData());
             individualRequest.setTargetAudience(request.getTargetAudience());
 
+            NotificationLog log = new NotificationLog(
+                    userId,
+                    request.getTitle(),
+                    request.getMessage(),
+                    request.getType(),
+                    individualRequest.getPriority()
+            );
+            logs.add(log);
             try {
-                NotificationResponse response = sendNotification(individualRequest);
-                responses.add(response);
-            } catch (Exception e) {
-                NotificationResponse errorResponse = new NotificationResponse(
-                        null,
-                        "FAILED",
-                        "Erro ao enviar notificação para usuário " + userId + ": " + e.getMessage()
-                );
-                responses.add(errorResponse);
+                messageBodies.add(objectMapper.writeValueAsString(createMessageBody(individualRequest)));
+                published.add(log);
+            } catch (JsonProcessingException e) {
+                log.setStatus("FAILED");
+                log.setErrorMessage(truncateError("Erro ao serializar mensagem: " + e.getMessage()));
             }
         }
 
+        List<PublishResult> results = sqsBatchPublisher.publish(messageBodies);
+        for (int i = 0; i < published.size(); i++) {
+            applyResult(published.get(i), results.get(i));
+        }
+        notificationLogBatchRepository.insertAll(logs);
+
+        List<NotificationResponse> responses = new ArrayList<>(logs.size());
+        for (NotificationLog log : logs) {
+            if ("SENT".equals(log.getStatus())) {
+                responses.add(toResponse(log));
+            } else {
+                responses.add(new NotificationResponse(
+                        log.getId(),
+                        "FAILED",
+                        "Erro ao enviar notificação para usuário " + log.getUserId() + ": " + log.getErrorMessage()
+                ));
+            }
+        }
         return responses;
     }
 
+    private void applyResult(NotificationLog log, PublishResult result) {
+        if (result.isSent()) {
+            log.setStatus("SENT");
+            log.setSqsMessageId(result.messageId());
+        } else {
+            log.setStatus("FAILED");
+            log.setErrorMessage(truncateError(result.errorMessage()));
+        }
+    }
+
+    private NotificationResponse toResponse(NotificationLog log) {
+        NotificationResponse response = new NotificationResponse(
+                log.getId(),
+                "SENT",
+                "Notificação enviada com sucesso"
+        );
+        response.setMessageId(log.getSqsMessageId());
+        return response;
+    }
+
+    private String truncateError(String errorMessage) {
+        return errorMessage != null && errorMessage.length() > ERROR_MESSAGE_MAX_LENGTH
+                ? errorMessage.substring(0, ERROR_MESSAGE_MAX_LENGTH)
+                : errorMessage;
+    }
+
     public List<NotificationLog> getNotificationHistory(Long userId) {
         return notificationLogRepository.findByUserIdOrderBySentAtDesc(userId);
     }
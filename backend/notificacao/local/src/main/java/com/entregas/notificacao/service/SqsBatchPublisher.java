@@ -0,0 +1,150 @@
+package com.entregas.notificacao.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Publica mensagens na fila com {@code SendMessageBatch}, em lotes de até 10
+ * mensagens e 256 KB, mantendo no máximo {@code max-in-flight-batches} lotes em
+ * andamento no serviço inteiro. Devolve um resultado por mensagem, na mesma
+ * ordem da entrada; falhas de um lote ou de uma entrada não interrompem as demais.
+ */
+@Component
+public class SqsBatchPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqsBatchPublisher.class);
+
+    static final int MAX_BATCH_ENTRIES = 10;
+    static final int MAX_BATCH_BYTES = 256 * 1024;
+
+    @Autowired
+    private SqsAsyncClient sqsAsyncClient;
+
+    @Value("${aws.sqs.queue-url}")
+    private String queueUrl;
+
+    @Value("${aws.sqs.publish.max-in-flight-batches:8}")
+    private int maxInFlightBatches;
+
+    private Semaphore inFlightBatches;
+
+    @PostConstruct
+    void init() {
+        inFlightBatches = new Semaphore(Math.max(1, maxInFlightBatches));
+    }
+
+    public List<PublishResult> publish(List<String> messageBodies) {
+        PublishResult[] results = new PublishResult[messageBodies.size()];
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        int[] messageBytes = new int[messageBodies.size()];
+        for (int i = 0; i < messageBytes.length; i++) {
+            messageBytes[i] = messageBodies.get(i).getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        int start = 0;
+        while (start < messageBodies.size()) {
+            int end = batchEnd(messageBytes, start);
+            try {
+                inFlightBatches.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            pending.add(sendBatch(messageBodies, start, end, results)
+                    .whenComplete((ignored, error) -> inFlightBatches.release()));
+            start = end;
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = PublishResult.failed("Mensagem não publicada");
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private int batchEnd(int[] messageBytes, int start) {
+        int end = start;
+        int batchBytes = 0;
+        while (end < messageBytes.length && end - start < MAX_BATCH_ENTRIES) {
+            if (end > start && batchBytes + messageBytes[end] > MAX_BATCH_BYTES) {
+                break;
+            }
+            batchBytes += messageBytes[end];
+            end++;
+        }
+        return end;
+    }
+
+    private CompletableFuture<Void> sendBatch(List<String> messageBodies, int start, int end, PublishResult[] results) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .messageBody(messageBodies.get(i))
+                    .build());
+        }
+        SendMessageBatchRequest request = SendMessageBatchRequest.builder()
+                .queueUrl(queueUrl)
+                .entries(entries)
+                .build();
+
+        CompletableFuture<SendMessageBatchResponse> response;
+        try {
+            response = sqsAsyncClient.sendMessageBatch(request);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((batchResponse, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                logger.warn("SQS batch of {} messages failed: {}", end - start, cause.getMessage());
+                PublishResult failed = PublishResult.failed("Erro ao enviar para SQS: " + cause.getMessage());
+                Arrays.fill(results, start, end, failed);
+                return null;
+            }
+            for (SendMessageBatchResultEntry entry : batchResponse.successful()) {
+                results[Integer.parseInt(entry.id())] = PublishResult.sent(entry.messageId());
+            }
+            for (BatchResultErrorEntry entry : batchResponse.failed()) {
+                results[Integer.parseInt(entry.id())] = PublishResult.failed(
+                        "Erro ao enviar para SQS: " + entry.code() + " - " + entry.message());
+            }
+            return null;
+        });
+    }
+
+    public record PublishResult(String messageId, String errorMessage) {
+
+        static PublishResult sent(String messageId) {
+            return new PublishResult(messageId, null);
+        }
+
+        static PublishResult failed(String errorMessage) {
+            return new PublishResult(null, errorMessage);
+        }
+
+        public boolean isSent() {
+            return errorMessage == null;
+        }
+    }
+}
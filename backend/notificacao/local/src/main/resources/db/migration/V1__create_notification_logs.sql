@@ -0,0 +1,19 @@
+CREATE TABLE notification_logs (
+    id              BIGSERIAL PRIMARY KEY,
+    user_id         BIGINT NOT NULL,
+    title           VARCHAR(255) NOT NULL,
+    message         VARCHAR(1000) NOT NULL,
+    type            VARCHAR(255),
+    priority        VARCHAR(255),
+    status          VARCHAR(255) NOT NULL,
+    sqs_message_id  VARCHAR(255),
+    sent_at         TIMESTAMP(6) NOT NULL,
+    error_message   VARCHAR(255)
+);
+
+CREATE TABLE notification_data (
+    notification_id BIGINT NOT NULL REFERENCES notification_logs (id),
+    data_key        VARCHAR(255) NOT NULL,
+    data_value      VARCHAR(255),
+    PRIMARY KEY (notification_id, data_key)
+);
@@ -0,0 +1,7 @@
+-- Consultas por usuário, status e tipo ordenadas por sent_at DESC.
+CREATE INDEX idx_notification_logs_user_sent_at ON notification_logs (user_id, sent_at DESC);
+CREATE INDEX idx_notification_logs_status_sent_at ON notification_logs (status, sent_at DESC);
+CREATE INDEX idx_notification_logs_type_sent_at ON notification_logs (type, sent_at DESC);
+
+-- Consultas por período (findByDateRange).
+CREATE INDEX idx_notification_logs_sent_at ON notification_logs (sent_at DESC);
@@ -0,0 +1,4 @@
+-- Chave de idempotência (cabeçalho Idempotency-Key): no máximo um envio bem-sucedido por chave.
+ALTER TABLE notification_logs ADD COLUMN dedup_key VARCHAR(255);
+
+CREATE UNIQUE INDEX idx_notification_logs_dedup_key ON notification_logs (dedup_key) WHERE status = 'SENT';
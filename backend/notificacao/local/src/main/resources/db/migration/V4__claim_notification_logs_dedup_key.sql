@@ -0,0 +1,15 @@
+-- A chave de idempotência passa a ser reservada antes da publicação (linha PENDING),
+-- então é única em qualquer status. Tentativas antigas repetidas da mesma chave
+-- ficam sem chave, mantendo o envio SENT (ou, sem ele, a tentativa mais recente).
+UPDATE notification_logs SET dedup_key = NULL
+WHERE id IN (
+    SELECT id FROM (
+        SELECT id, ROW_NUMBER() OVER (PARTITION BY dedup_key ORDER BY (status = 'SENT') DESC, id DESC) AS rn
+        FROM notification_logs
+        WHERE dedup_key IS NOT NULL
+    ) ranked
+    WHERE rn > 1
+);
+
+DROP INDEX idx_notification_logs_dedup_key;
+CREATE UNIQUE INDEX idx_notification_logs_dedup_key ON notification_logs (dedup_key);
@@ -0,0 +1,50 @@
+package com.entregas.pedidos.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Resposta NDJSON (um objeto JSON por linha) escrita à medida que os itens são
+ * produzidos, sem montar lista nem documento JSON completos. A origem recebe o
+ * consumidor que grava cada item e é executada na thread assíncrona da
+ * resposta.
+ */
+final class NdjsonResponse {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private NdjsonResponse() {}
+
+    static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Class<T> type, Consumer<Consumer<T>> source) {
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            int[] written = {0};
+            source.accept(item -> {
+                try {
+                    writer.writeValue(generator, item);
+                    generator.writeRaw('\n');
+                    if (++written[0] % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.close();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,15 +16,21 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.entregas.pedidos.dto.CreatePedidoRequest;
 import com.entregas.pedidos.dto.ErrorResponse;
+import com.entregas.pedidos.dto.PedidoPage;
 import com.entregas.pedidos.dto.PedidoResponse;
+import com.entregas.pedidos.dto.PedidoSummaryResponse;
 import com.entregas.pedidos.dto.UpdatePedidoStatusRequest;
 import com.entregas.pedidos.dto.ClaimPedidoRequest;
 import com.entregas.pedidos.model.PedidoStatus;
+import com.entregas.pedidos.service.GatewayIdentityVerifier;
 import com.entregas.pedidos.service.PedidoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -30,17 +38,27 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/pedidos")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = PedidoController.NEXT_CURSOR_HEADER)
 @Tag(name = "Pedidos", description = "APIs de gerenciamento de pedidos")
 public class PedidoController {
 
+    /** Cursor da próxima página nas listagens; ausente na última página. */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private PedidoService pedidoService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GatewayIdentityVerifier gatewayIdentityVerifier;
+
     @PostMapping
     @Operation(summary = "Criar pedido", description = "Cria um novo pedido")
     @ApiResponses(value = {
@@ -49,10 +67,8 @@ public class PedidoController {
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<PedidoResponse> createPedido(
-            @Valid @RequestBody CreatePedidoRequest request,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = extractTokenFromHeader(authHeader);
-        PedidoResponse response = pedidoService.createPedido(request, token);
+            @Valid @RequestBody CreatePedidoRequest request) {
+        PedidoResponse response = pedidoService.createPedido(request);
         return ResponseEntity.ok(response);
     }
 
@@ -69,59 +85,84 @@ public class PedidoController {
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Buscar pedidos por cliente", description = "Retorna todos os pedidos de um cliente específico")
+    @Operation(summary = "Buscar pedidos por cliente", description = "Retorna os pedidos de um cliente específico, do mais recente ao mais antigo, paginados por cursor")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Pedidos encontrados",
-                content = @Content(schema = @Schema(implementation = PedidoResponse.class)))
+                content = @Content(schema = @Schema(implementation = PedidoSummaryResponse.class)))
     })
     @GetMapping("/cliente/{email}")
-    public ResponseEntity<List<PedidoResponse>> getPedidosByCliente(@PathVariable String email) {
-        List<PedidoResponse> responses = pedidoService.getPedidosByClienteEmail(email);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<PedidoSummaryResponse>> getPedidosByCliente(
+            @PathVariable String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pageResponse(pedidoService.getPedidosByClienteEmail(email, cursor, limit));
     }
 
-    @Operation(summary = "Buscar pedidos por ID do cliente", description = "Retorna todos os pedidos de um cliente específico por ID")
+    @Operation(summary = "Buscar pedidos por ID do cliente", description = "Retorna os pedidos de um cliente específico por ID, do mais recente ao mais antigo, paginados por cursor")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Pedidos encontrados",
-                content = @Content(schema = @Schema(implementation = PedidoResponse.class)))
+                content = @Content(schema = @Schema(implementation = PedidoSummaryResponse.class)))
     })
     @GetMapping("/cliente/id/{clienteId}")
-    public ResponseEntity<List<PedidoResponse>> getPedidosByClienteId(@PathVariable Long clienteId) {
-        List<PedidoResponse> responses = pedidoService.getPedidosByClienteId(clienteId);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<PedidoSummaryResponse>> getPedidosByClienteId(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pageResponse(pedidoService.getPedidosByClienteId(clienteId, cursor, limit));
     }
 
-    @Operation(summary = "Buscar pedidos por motorista", description = "Retorna todos os pedidos atribuídos a um motorista")
+    @Operation(summary = "Buscar pedidos por motorista", description = "Retorna os pedidos atribuídos a um motorista, do mais recente ao mais antigo, paginados por cursor")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Pedidos encontrados",
-                content = @Content(schema = @Schema(implementation = PedidoResponse.class)))
+                content = @Content(schema = @Schema(implementation = PedidoSummaryResponse.class)))
     })
     @GetMapping("/motorista/{motoristaId}")
-    public ResponseEntity<List<PedidoResponse>> getPedidosByMotorista(@PathVariable Long motoristaId) {
-        List<PedidoResponse> responses = pedidoService.getPedidosByMotoristaId(motoristaId);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<PedidoSummaryResponse>> getPedidosByMotorista(
+            @PathVariable Long motoristaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pageResponse(pedidoService.getPedidosByMotoristaId(motoristaId, cursor, limit));
     }
 
-    @Operation(summary = "Buscar pedidos disponíveis", description = "Retorna todos os pedidos pendentes disponíveis para motoristas")
+    @Operation(summary = "Buscar pedidos disponíveis", description = "Retorna os pedidos pendentes disponíveis para motoristas, do mais recente ao mais antigo, paginados por cursor")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Pedidos disponíveis encontrados",
-                content = @Content(schema = @Schema(implementation = PedidoResponse.class)))
+                content = @Content(schema = @Schema(implementation = PedidoSummaryResponse.class)))
     })
     @GetMapping("/available")
-    public ResponseEntity<List<PedidoResponse>> getAvailablePedidos() {
-        List<PedidoResponse> responses = pedidoService.getAvailablePedidos();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<PedidoSummaryResponse>> getAvailablePedidos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pageResponse(pedidoService.getAvailablePedidos(cursor, limit));
     }
 
-    @Operation(summary = "Buscar pedidos por status", description = "Retorna todos os pedidos com um status específico")
+    @Operation(summary = "Exportar meus pedidos", description = "Retorna os pedidos do usuário autenticado (criados por ele, se cliente; atribuídos a ele, se motorista), do mais recente ao mais antigo, em NDJSON (um pedido por linha), enviados à medida que as linhas são lidas do banco. Exige a identidade assinada pelo gateway")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pedidos em NDJSON",
+                content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = PedidoSummaryResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Requisição sem identidade verificada pelo gateway")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPedidos(HttpServletRequest request) {
+        GatewayIdentityVerifier.Identity user = gatewayIdentityVerifier.verify(request);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return NdjsonResponse.of(objectMapper, PedidoSummaryResponse.class,
+                consumer -> pedidoService.streamPedidos(user, consumer));
+    }
+
+    @Operation(summary = "Buscar pedidos por status", description = "Retorna os pedidos com um status específico, do mais recente ao mais antigo, paginados por cursor")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Pedidos encontrados",
-                content = @Content(schema = @Schema(implementation = PedidoResponse.class)))
+                content = @Content(schema = @Schema(implementation = PedidoSummaryResponse.class)))
     })
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<PedidoResponse>> getPedidosByStatus(@PathVariable PedidoStatus status) {
-        List<PedidoResponse> responses = pedidoService.getPedidosByStatus(status);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<PedidoSummaryResponse>> getPedidosByStatus(
+            @PathVariable PedidoStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pageResponse(pedidoService.getPedidosByStatus(status, cursor, limit));
     }
 
     @Operation(summary = "Atualizar status do pedido", description = "Atualiza o status de um pedido específico")
@@ -164,10 +205,8 @@ public class PedidoController {
     @PutMapping("/{id}/claim")
     public ResponseEntity<PedidoResponse> claimPedido(
             @PathVariable Long id,
-            @Valid @RequestBody ClaimPedidoRequest request,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = extractTokenFromHeader(authHeader);
-        PedidoResponse response = pedidoService.claimPedido(id, request.getMotoristaId(), token);
+            @Valid @RequestBody ClaimPedidoRequest request) {
+        PedidoResponse response = pedidoService.claimPedido(id, request.getMotoristaId());
         return ResponseEntity.ok(response);
     }
 
@@ -185,6 +224,14 @@ public class PedidoController {
         return ResponseEntity.ok().build();
     }
 
+    private ResponseEntity<List<PedidoSummaryResponse>> pageResponse(PedidoPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
     private String extractTokenFromHeader(String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             return authHeader.substring(7);
@@ -0,0 +1,26 @@
+package com.entregas.pedidos.dto;
+
+import java.util.List;
+
+public class PedidoPage {
+
+    private final List<PedidoSummaryResponse> items;
+    private final String nextCursor;
+
+    public PedidoPage(List<PedidoSummaryResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PedidoSummaryResponse> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
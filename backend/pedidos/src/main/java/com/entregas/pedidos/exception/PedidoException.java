@@ -30,6 +30,10 @@ public class PedidoException extends RuntimeException {
         return new PedidoException("Pedido não está disponível para reivindicação");
     }
 
+    public static PedidoException invalidCursor() {
+        return new PedidoException("Cursor de paginação inválido");
+    }
+
     public static PedidoException invalidCoordinates() {
         return new PedidoException("Coordenadas inválidas");
     }
@@ -0,0 +1,103 @@
+package com.entregas.pedidos.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+@Repository
+public class NotificationOutboxRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO notification_outbox " +
+            "(dedup_key, pedido_id, endpoint, payload, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?) ON CONFLICT (dedup_key) DO NOTHING";
+
+    // Só o evento pendente mais antigo de cada pedido pode ser enviado, para que
+    // o serviço de notificações receba os eventos do pedido na ordem em que
+    // aconteceram. As linhas reservadas ficam fora da busca até o fim do lease.
+    private static final String CLAIM_SQL = "UPDATE notification_outbox SET next_attempt_at = ? " +
+            "WHERE id IN (SELECT o.id FROM notification_outbox o " +
+            "WHERE o.status = 'PENDING' AND o.next_attempt_at <= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM notification_outbox e WHERE e.pedido_id = o.pedido_id AND e.status = 'PENDING' AND e.id < o.id) " +
+            "ORDER BY o.next_attempt_at, o.id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, dedup_key, pedido_id, endpoint, payload, attempts, created_at";
+
+    private static final String UPDATE_OUTCOME_SQL = "UPDATE notification_outbox SET status = ?, attempts = ?, " +
+            "next_attempt_at = ?, sent_at = ?, last_error = ? WHERE id = ?";
+
+    private static final String PENDING_STATS_SQL = "SELECT COUNT(*), MIN(created_at) FROM notification_outbox WHERE status = 'PENDING'";
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getString("dedup_key"),
+            rs.getLong("pedido_id"),
+            rs.getString("endpoint"),
+            rs.getString("payload"),
+            rs.getInt("attempts"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Grava o evento na transação corrente. Retorna {@code false} se já existe
+     * um evento com a mesma chave.
+     */
+    public boolean enqueue(String dedupKey, Long pedidoId, String endpoint, String payload, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.update(INSERT_SQL, dedupKey, pedidoId, endpoint, payload, timestamp, timestamp) == 1;
+    }
+
+    /**
+     * Reserva até {@code limit} eventos prontos para envio até {@code leaseUntil}.
+     * Linhas já reservadas por outra instância são ignoradas.
+     */
+    public List<OutboxEvent> claimReady(int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+        List<OutboxEvent> events = jdbcTemplate.query(CLAIM_SQL, ROW_MAPPER,
+                Timestamp.valueOf(leaseUntil), Timestamp.valueOf(now), limit);
+        events.sort(Comparator.comparingLong(OutboxEvent::id));
+        return events;
+    }
+
+    /**
+     * Grava o resultado das tentativas com um único batch JDBC.
+     */
+    public void saveOutcomes(List<Outcome> outcomes) {
+        jdbcTemplate.batchUpdate(UPDATE_OUTCOME_SQL, outcomes, outcomes.size(), (ps, outcome) -> {
+            ps.setString(1, outcome.status());
+            ps.setInt(2, outcome.attempts());
+            ps.setTimestamp(3, Timestamp.valueOf(outcome.nextAttemptAt()));
+            ps.setTimestamp(4, outcome.sentAt() != null ? Timestamp.valueOf(outcome.sentAt()) : null);
+            ps.setString(5, outcome.lastError());
+            ps.setLong(6, outcome.id());
+        });
+    }
+
+    public PendingStats pendingStats() {
+        return jdbcTemplate.queryForObject(PENDING_STATS_SQL, (rs, rowNum) -> {
+            Timestamp oldest = rs.getTimestamp(2);
+            return new PendingStats(rs.getLong(1), oldest != null ? oldest.toLocalDateTime() : null);
+        });
+    }
+
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM notification_outbox WHERE status <> 'PENDING' AND created_at < ?",
+                Timestamp.valueOf(cutoff));
+    }
+
+    public record OutboxEvent(long id, String dedupKey, long pedidoId, String endpoint, String payload,
+                              int attempts, LocalDateTime createdAt) {
+    }
+
+    public record Outcome(long id, String status, int attempts, LocalDateTime nextAttemptAt,
+                          LocalDateTime sentAt, String lastError) {
+    }
+
+    public record PendingStats(long count, LocalDateTime oldestCreatedAt) {
+    }
+}
@@ -2,32 +2,83 @@ package com.entregas.pedidos.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.entregas.pedidos.dto.PedidoSummaryResponse;
 import com.entregas.pedidos.model.Pedido;
 import com.entregas.pedidos.model.PedidoStatus;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface PedidoRepository extends JpaRepository<Pedido, Long> {
 
-    List<Pedido> findByClienteId(Long clienteId);
+    String SUMMARY_SELECT = "SELECT new com.entregas.pedidos.dto.PedidoSummaryResponse(" +
+            "p.id, p.clienteId, p.originAddress, p.destinationAddress, " +
+            "p.originLatitude, p.originLongitude, p.destinationLatitude, p.destinationLongitude, " +
+            "p.clienteNome, p.clienteEmail, p.clienteTelefone, p.cargoType, p.cargoWeight, p.cargoDimensions, " +
+            "p.specialInstructions, p.status, p.motoristaId, p.estimatedDistance, p.estimatedDuration, p.totalPrice, " +
+            "p.createdAt, p.updatedAt, p.deliveredAt) FROM Pedido p ";
+
+    // Listagens paginadas por (createdAt, id) em ordem decrescente: cada página
+    // começa após o cursor e o tamanho vem do Pageable. O "createdAt <= :createdAt"
+    // redundante vira condição de índice, então a busca começa direto no cursor em
+    // vez de filtrar as linhas das páginas anteriores.
+    String KEYSET = "p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC";
+
+    @Query(SUMMARY_SELECT + "WHERE " + KEYSET)
+    List<PedidoSummaryResponse> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
-    List<Pedido> findByClienteEmail(String clienteEmail);
+    @Query(SUMMARY_SELECT + "WHERE p.clienteId = :clienteId AND " + KEYSET)
+    List<PedidoSummaryResponse> findPageByClienteId(@Param("clienteId") Long clienteId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
-    List<Pedido> findByStatus(PedidoStatus status);
+    @Query(SUMMARY_SELECT + "WHERE p.clienteEmail = :email AND " + KEYSET)
+    List<PedidoSummaryResponse> findPageByClienteEmail(@Param("email") String email,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
-    List<Pedido> findByMotoristaId(Long motoristaId);
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status AND " + KEYSET)
+    List<PedidoSummaryResponse> findPageByStatus(@Param("status") PedidoStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
-    List<Pedido> findByClienteIdAndStatus(Long clienteId, PedidoStatus status);
+    @Query(SUMMARY_SELECT + "WHERE p.motoristaId = :motoristaId AND " + KEYSET)
+    List<PedidoSummaryResponse> findPageByMotoristaId(@Param("motoristaId") Long motoristaId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
-    List<Pedido> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    @Query(SUMMARY_SELECT + "WHERE p.clienteId = :clienteId AND p.status = :status AND " + KEYSET)
+    List<PedidoSummaryResponse> findPageByClienteIdAndStatus(@Param("clienteId") Long clienteId, @Param("status") PedidoStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
-    @Query("SELECT p FROM Pedido p WHERE p.status = :status AND p.motoristaId IS NULL")
-    List<Pedido> findAvailablePedidos(@Param("status") PedidoStatus status);
+    @Query(SUMMARY_SELECT + "WHERE p.createdAt BETWEEN :startDate AND :endDate AND " + KEYSET)
+    List<PedidoSummaryResponse> findPageByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Status como literal para casar com o índice parcial idx_pedidos_available.
+    @Query(SUMMARY_SELECT + "WHERE p.status = com.entregas.pedidos.model.PedidoStatus.PENDING AND p.motoristaId IS NULL AND " + KEYSET)
+    List<PedidoSummaryResponse> findAvailablePage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Exportação dos pedidos de um cliente ou motorista lida por cursor, 1000
+    // linhas por ida ao banco. O driver do PostgreSQL só usa cursor dentro de
+    // uma transação, então o stream deve ser consumido em @Transactional.
+    @Query(SUMMARY_SELECT + "WHERE p.clienteId = :clienteId ORDER BY p.createdAt DESC, p.id DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<PedidoSummaryResponse> streamByClienteId(@Param("clienteId") Long clienteId);
+
+    @Query(SUMMARY_SELECT + "WHERE p.motoristaId = :motoristaId ORDER BY p.createdAt DESC, p.id DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<PedidoSummaryResponse> streamByMotoristaId(@Param("motoristaId") Long motoristaId);
 
     @Query("SELECT p FROM Pedido p WHERE p.clienteEmail = :email ORDER BY p.createdAt DESC")
     List<Pedido> findPedidosByClienteEmailOrderByCreatedAtDesc(@Param("email") String email);
@@ -37,4 +88,15 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
 
     @Query("SELECT p FROM Pedido p WHERE p.status IN ('PENDING', 'ACCEPTED', 'IN_TRANSIT', 'OUT_FOR_DELIVERY')")
     List<Pedido> findActivePedidos();
+
+    /**
+     * Atribui o pedido ao motorista em um único UPDATE condicional. Retorna 1 se
+     * o pedido ainda estava pendente e sem motorista, ou 0 se outro motorista já
+     * o reivindicou.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.motoristaId = :motoristaId, p.status = com.entregas.pedidos.model.PedidoStatus.ACCEPTED, p.updatedAt = :updatedAt " +
+           "WHERE p.id = :id AND p.status = com.entregas.pedidos.model.PedidoStatus.PENDING AND p.motoristaId IS NULL")
+    int claimPedido(@Param("id") Long id, @Param("motoristaId") Long motoristaId, @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -1,132 +1,102 @@
 package com.entregas.pedidos.service;
 
+import com.entregas.pedidos.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Registra as notificações dos eventos de pedido na outbox ({@code notification_outbox}).
+ * Os métodos devem ser chamados dentro da transação que altera o pedido: o evento
+ * só existe se a mudança for confirmada, e o envio ao serviço de notificações,
+ * com novas tentativas, fica com o {@link NotificationOutboxRelay}.
+ */
 @Service
 public class NotificationClientService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationClientService.class);
-    private final WebClient webClient;
 
-    @Value("${services.notification.url}")
-    private String notificationServiceUrl;
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
 
-    public NotificationClientService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-                .build();
-    }
-
-    public void notifyDriversOfNewPedido(String token, Long pedidoId, String originAddress, String destinationAddress) {
-        try {
-            Map<String, Object> notificationRequest = new HashMap<>();
-            notificationRequest.put("title", "Novo pedido disponível!");
-            notificationRequest.put("message", String.format("Nova entrega de %s para %s", originAddress, destinationAddress));
-            notificationRequest.put("type", "NOVO_PEDIDO");
-            notificationRequest.put("priority", "NORMAL");
-            
-            Map<String, Object> data = new HashMap<>();
-            data.put("pedidoId", pedidoId);
-            data.put("originAddress", originAddress);
-            data.put("destinationAddress", destinationAddress);
-            notificationRequest.put("data", data);
+    @Autowired
+    private ObjectMapper objectMapper;
 
-            logger.debug("Notifying drivers of new pedido: {}", pedidoId);
-            
-            webClient.post()
-                    .uri(notificationServiceUrl + "/api/notification/send-motoristas")
-                    .header("Authorization", "Bearer " + token)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(notificationRequest)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .subscribe(
-                        response -> logger.debug("Successfully notified drivers of new pedido: {}", pedidoId),
-                        error -> logger.warn("Failed to notify drivers of new pedido {}: {}", pedidoId, error.getMessage())
-                    );
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notifyDriversOfNewPedido(Long pedidoId, String originAddress, String destinationAddress) {
+        Map<String, Object> notificationRequest = new HashMap<>();
+        notificationRequest.put("userId", 0L); // obrigatório na validação; /send-motoristas usa o tópico dos motoristas
+        notificationRequest.put("title", "Novo pedido disponível!");
+        notificationRequest.put("message", String.format("Nova entrega de %s para %s", originAddress, destinationAddress));
+        notificationRequest.put("type", "NOVO_PEDIDO");
+        notificationRequest.put("priority", "NORMAL");
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("pedidoId", pedidoId);
+        data.put("originAddress", originAddress);
+        data.put("destinationAddress", destinationAddress);
+        notificationRequest.put("data", data);
 
-        } catch (Exception e) {
-            logger.error("Error notifying drivers of new pedido {}: {}", pedidoId, e.getMessage());
-        }
+        logger.debug("Queueing driver notification for new pedido: {}", pedidoId);
+        enqueue("PEDIDO_CRIADO:" + pedidoId, pedidoId, "/api/notification/send-motoristas", notificationRequest);
     }
 
-    public void notifyClientOfPedidoPickup(String token, Long clienteId, Long pedidoId, String originAddress, String destinationAddress) {
-        try {
-            Map<String, Object> notificationRequest = new HashMap<>();
-            notificationRequest.put("userId", clienteId);
-            notificationRequest.put("title", "Pedido aceito por motorista!");
-            notificationRequest.put("message", String.format("Seu pedido de %s para %s foi aceito e o motorista está a caminho", originAddress, destinationAddress));
-            notificationRequest.put("type", "PEDIDO_ACEITO");
-            notificationRequest.put("priority", "HIGH");
-            
-            Map<String, Object> data = new HashMap<>();
-            data.put("pedidoId", pedidoId);
-            data.put("originAddress", originAddress);
-            data.put("destinationAddress", destinationAddress);
-            notificationRequest.put("data", data);
-
-            logger.debug("Notifying client {} of pedido pickup: {}", clienteId, pedidoId);
-            
-            webClient.post()
-                    .uri(notificationServiceUrl + "/api/notification/send")
-                    .header("Authorization", "Bearer " + token)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(notificationRequest)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .subscribe(
-                        response -> logger.debug("Successfully notified client {} of pedido pickup: {}", clienteId, pedidoId),
-                        error -> logger.warn("Failed to notify client {} of pedido pickup {}: {}", clienteId, pedidoId, error.getMessage())
-                    );
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notifyClientOfPedidoPickup(Long clienteId, Long pedidoId, String originAddress, String destinationAddress) {
+        Map<String, Object> notificationRequest = new HashMap<>();
+        notificationRequest.put("userId", clienteId);
+        notificationRequest.put("title", "Pedido aceito por motorista!");
+        notificationRequest.put("message", String.format("Seu pedido de %s para %s foi aceito e o motorista está a caminho", originAddress, destinationAddress));
+        notificationRequest.put("type", "PEDIDO_ACEITO");
+        notificationRequest.put("priority", "HIGH");
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("pedidoId", pedidoId);
+        data.put("originAddress", originAddress);
+        data.put("destinationAddress", destinationAddress);
+        notificationRequest.put("data", data);
 
-        } catch (Exception e) {
-            logger.error("Error notifying client {} of pedido pickup {}: {}", clienteId, pedidoId, e.getMessage());
-        }
+        logger.debug("Queueing pickup notification for client {} of pedido: {}", clienteId, pedidoId);
+        enqueue("PEDIDO_ACEITO:" + pedidoId, pedidoId, "/api/notification/send", notificationRequest);
     }
 
-    public void notifyClientOfPedidoCompletion(String token, Long clienteId, Long pedidoId, String destinationAddress) {
-        try {
-            Map<String, Object> notificationRequest = new HashMap<>();
-            notificationRequest.put("userId", clienteId);
-            notificationRequest.put("title", "Pedido entregue!");
-            notificationRequest.put("message", String.format("Seu pedido foi entregue com sucesso em %s. Por favor, avalie sua experiência.", destinationAddress));
-            notificationRequest.put("type", "PEDIDO_FINALIZADO");
-            notificationRequest.put("priority", "HIGH");
-            
-            Map<String, Object> data = new HashMap<>();
-            data.put("pedidoId", pedidoId);
-            data.put("destinationAddress", destinationAddress);
-            data.put("action", "AVALIAR_ENTREGA");
-            notificationRequest.put("data", data);
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notifyClientOfPedidoCompletion(Long clienteId, Long pedidoId, String destinationAddress) {
+        Map<String, Object> notificationRequest = new HashMap<>();
+        notificationRequest.put("userId", clienteId);
+        notificationRequest.put("title", "Pedido entregue!");
+        notificationRequest.put("message", String.format("Seu pedido foi entregue com sucesso em %s. Por favor, avalie sua experiência.", destinationAddress));
+        notificationRequest.put("type", "PEDIDO_FINALIZADO");
+        notificationRequest.put("priority", "HIGH");
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("pedidoId", pedidoId);
+        data.put("destinationAddress", destinationAddress);
+        data.put("action", "AVALIAR_ENTREGA");
+        notificationRequest.put("data", data);
 
-            logger.debug("Notifying client {} of pedido completion: {}", clienteId, pedidoId);
-            
-            webClient.post()
-                    .uri(notificationServiceUrl + "/api/notification/send")
-                    .header("Authorization", "Bearer " + token)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(notificationRequest)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .subscribe(
-                        response -> logger.debug("Successfully notified client {} of pedido completion: {}", clienteId, pedidoId),
-                        error -> logger.warn("Failed to notify client {} of pedido completion {}: {}", clienteId, pedidoId, error.getMessage())
-                    );
+        logger.debug("Queueing completion notification for client {} of pedido: {}", clienteId, pedidoId);
+        enqueue("PEDIDO_FINALIZADO:" + pedidoId, pedidoId, "/api/notification/send", notificationRequest);
+    }
 
-        } catch (Exception e) {
-            logger.error("Error notifying client {} of pedido completion {}: {}", clienteId, pedidoId, e.getMessage());
+    private void enqueue(String dedupKey, Long pedidoId, String endpoint, Map<String, Object> notificationRequest) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(notificationRequest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar notificação do pedido " + pedidoId, e);
+        }
+        if (!outboxRepository.enqueue(dedupKey, pedidoId, endpoint, payload, LocalDateTime.now())) {
+            logger.debug("Notification {} already in outbox, skipping", dedupKey);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,229 @@
+package com.entregas.pedidos.service;
+
+import com.entregas.pedidos.repository.NotificationOutboxRepository;
+import com.entregas.pedidos.repository.NotificationOutboxRepository.OutboxEvent;
+import com.entregas.pedidos.repository.NotificationOutboxRepository.Outcome;
+import com.entregas.pedidos.repository.NotificationOutboxRepository.PendingStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega ao serviço de notificações os eventos gravados na outbox. A cada
+ * ciclo reserva lotes de eventos prontos e envia até {@code max-concurrency}
+ * ao mesmo tempo, autenticado como o próprio serviço de pedidos
+ * ({@link ServiceIdentitySigner}) e com a chave do evento em
+ * {@code Idempotency-Key}. Falhas temporárias são repetidas com backoff
+ * exponencial e jitter até {@code max-attempts}; respostas 4xx (exceto 408,
+ * 429 e o 409 de um envio com a mesma chave ainda em andamento) encerram o
+ * evento como {@code FAILED}.
+ */
+@Service
+public class NotificationOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebClient webClient;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ServiceIdentitySigner serviceIdentitySigner;
+
+    @Value("${services.notification.url}")
+    private String notificationServiceUrl;
+
+    @Value("${pedidos.outbox.relay-enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${pedidos.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${pedidos.outbox.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${pedidos.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${pedidos.outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${pedidos.outbox.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    @Value("${pedidos.outbox.request-timeout:10s}")
+    private Duration requestTimeout;
+
+    @Value("${pedidos.outbox.lease:5m}")
+    private Duration lease;
+
+    @Value("${pedidos.outbox.retention:7d}")
+    private Duration retention;
+
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Timer deliveryLagTimer;
+
+    public NotificationOutboxRelay(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.build();
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("pedidos.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Notificações aguardando envio na outbox")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.outbox.lag", oldestPendingAgeMillis, age -> age.get() / 1000.0)
+                .description("Idade da notificação pendente mais antiga")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        sentCounter = meterRegistry.counter("pedidos.outbox.sent");
+        retriedCounter = meterRegistry.counter("pedidos.outbox.retried");
+        failedCounter = meterRegistry.counter("pedidos.outbox.failed");
+        deliveryLagTimer = Timer.builder("pedidos.outbox.delivery.lag")
+                .description("Tempo entre a gravação do evento e a entrega ao serviço de notificações")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${pedidos.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!relayEnabled) {
+            return;
+        }
+        try {
+            List<OutboxEvent> batch;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                batch = outboxRepository.claimReady(batchSize, now, now.plus(lease));
+                if (!batch.isEmpty()) {
+                    deliver(batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            logger.error("Notification outbox relay failed: {}", e.getMessage());
+        }
+        refreshPendingStats();
+    }
+
+    @Scheduled(cron = "${pedidos.outbox.cleanup-cron:0 45 3 * * *}")
+    public void deleteFinishedEvents() {
+        int deleted = outboxRepository.deleteFinishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Deleted {} finished notification outbox events", deleted);
+        }
+    }
+
+    private void deliver(List<OutboxEvent> batch) {
+        List<Outcome> outcomes = Flux.fromIterable(batch)
+                .flatMap(this::send, Math.max(1, maxConcurrency))
+                .collectList()
+                .block();
+        outboxRepository.saveOutcomes(outcomes);
+        logger.debug("Relayed {} notification outbox events", outcomes.size());
+    }
+
+    private Mono<Outcome> send(OutboxEvent event) {
+        URI uri = URI.create(notificationServiceUrl + event.endpoint());
+        return webClient.post()
+                .uri(uri)
+                .headers(serviceIdentitySigner.headers("POST", uri.getRawPath()))
+                .header("Idempotency-Key", event.dedupKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(event.payload())
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(requestTimeout)
+                .map(response -> sent(event))
+                .onErrorResume(error -> Mono.just(isPermanent(error)
+                        ? failed(event, errorMessage(error))
+                        : retry(event, errorMessage(error))));
+    }
+
+    private Outcome sent(OutboxEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        sentCounter.increment();
+        deliveryLagTimer.record(Duration.between(event.createdAt(), now));
+        return new Outcome(event.id(), "SENT", event.attempts() + 1, now, now, null);
+    }
+
+    private Outcome retry(OutboxEvent event, String error) {
+        int attempts = event.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            return failed(event, error);
+        }
+        retriedCounter.increment();
+        logger.debug("Notification {} failed (attempt {}), retrying: {}", event.dedupKey(), attempts, error);
+        return new Outcome(event.id(), "PENDING", attempts, LocalDateTime.now().plus(backoff(attempts)), null, error);
+    }
+
+    private Outcome failed(OutboxEvent event, String error) {
+        failedCounter.increment();
+        logger.warn("Giving up on notification {} after {} attempts: {}", event.dedupKey(), event.attempts() + 1, error);
+        return new Outcome(event.id(), "FAILED", event.attempts() + 1, LocalDateTime.now(), null, error);
+    }
+
+    /**
+     * Backoff exponencial limitado a {@code max-backoff}, sorteado entre metade
+     * e o valor cheio para que eventos que falharam juntos não voltem juntos.
+     */
+    private Duration backoff(int attempts) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 30));
+        long half = ceiling / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private boolean isPermanent(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            int status = responseException.getStatusCode().value();
+            return status >= 400 && status < 500 && status != 408 && status != 409 && status != 429;
+        }
+        return false;
+    }
+
+    private String errorMessage(Throwable error) {
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private void refreshPendingStats() {
+        try {
+            PendingStats stats = outboxRepository.pendingStats();
+            pendingCount.set(stats.count());
+            oldestPendingAgeMillis.set(stats.oldestCreatedAt() != null
+                    ? Math.max(0, Duration.between(stats.oldestCreatedAt(), LocalDateTime.now()).toMillis())
+                    : 0);
+        } catch (Exception e) {
+            logger.warn("Failed to read notification outbox stats: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.entregas.pedidos.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.entregas.pedidos.exception.PedidoException;
+
+/**
+ * Posição de uma listagem paginada por (created_at, id), em ordem decrescente.
+ * O token enviado ao cliente é o par codificado em Base64 URL-safe; a próxima
+ * página começa logo após o último pedido da página anterior.
+ */
+record PedidoCursor(LocalDateTime createdAt, Long id) {
+
+    /** Posição anterior a qualquer pedido, usada na primeira página. */
+    static final PedidoCursor FIRST = new PedidoCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    static PedidoCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            return new PedidoCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw PedidoException.invalidCursor();
+        }
+    }
+
+    String encode() {
+        String value = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,19 +2,29 @@ package com.entregas.pedidos.service;
 
 import com.entregas.pedidos.dto.ClaimPedidoRequest;
 import com.entregas.pedidos.dto.CreatePedidoRequest;
+import com.entregas.pedidos.dto.PedidoPage;
 import com.entregas.pedidos.dto.PedidoResponse;
+import com.entregas.pedidos.dto.PedidoSummaryResponse;
 import com.entregas.pedidos.dto.UpdatePedidoStatusRequest;
 import com.entregas.pedidos.exception.PedidoException;
 import com.entregas.pedidos.model.Pedido;
 import com.entregas.pedidos.model.PedidoStatus;
 import com.entregas.pedidos.repository.PedidoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class PedidoService {
@@ -25,7 +35,17 @@ public class PedidoService {
     @Autowired
     private NotificationClientService notificationClientService;
 
-    public PedidoResponse createPedido(CreatePedidoRequest request, String userToken) {
+    @Autowired
+    private RastreamentoClientService rastreamentoClientService;
+
+    @Value("${pedidos.pagination.default-limit:50}")
+    private int defaultPageSize;
+
+    @Value("${pedidos.pagination.max-limit:200}")
+    private int maxPageSize;
+
+    @Transactional
+    public PedidoResponse createPedido(CreatePedidoRequest request) {
         Pedido pedido = new Pedido();
         pedido.setOriginAddress(request.getOriginAddress());
         pedido.setDestinationAddress(request.getDestinationAddress());
@@ -47,14 +67,11 @@ public class PedidoService {
 
         Pedido savedPedido = pedidoRepository.save(pedido);
         
-        if (userToken != null) {
-            notificationClientService.notifyDriversOfNewPedido(
-                userToken, 
-                savedPedido.getId(), 
-                savedPedido.getOriginAddress(), 
-                savedPedido.getDestinationAddress()
-            );
-        }
+        notificationClientService.notifyDriversOfNewPedido(
+            savedPedido.getId(), 
+            savedPedido.getOriginAddress(), 
+            savedPedido.getDestinationAddress()
+        );
         
         return convertToResponse(savedPedido);
     }
@@ -67,41 +84,47 @@ public class PedidoService {
         throw new PedidoException("Pedido não encontrado com ID: " + id);
     }
 
-    public List<PedidoResponse> getAllPedidos() {
-        List<Pedido> pedidos = pedidoRepository.findAll();
-        return pedidos.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PedidoPage getAllPedidos(String cursor, Integer limit) {
+        return page(cursor, limit, (after, pageable) ->
+                pedidoRepository.findPage(after.createdAt(), after.id(), pageable));
+    }
+
+    /**
+     * Entrega os pedidos do usuário (os atribuídos a ele, se for motorista; os
+     * que ele criou, se for cliente), do mais recente ao mais antigo, direto do
+     * cursor do banco, sem montar a lista. O consumidor é chamado dentro da
+     * transação.
+     */
+    @Transactional(readOnly = true)
+    public void streamPedidos(GatewayIdentityVerifier.Identity user, Consumer<PedidoSummaryResponse> consumer) {
+        try (Stream<PedidoSummaryResponse> pedidos = user.isDriver()
+                ? pedidoRepository.streamByMotoristaId(user.userId())
+                : pedidoRepository.streamByClienteId(user.userId())) {
+            pedidos.forEach(consumer);
+        }
     }
 
-    public List<PedidoResponse> getPedidosByClienteId(Long clienteId) {
-        List<Pedido> pedidos = pedidoRepository.findByClienteId(clienteId);
-        return pedidos.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PedidoPage getPedidosByClienteId(Long clienteId, String cursor, Integer limit) {
+        return page(cursor, limit, (after, pageable) ->
+                pedidoRepository.findPageByClienteId(clienteId, after.createdAt(), after.id(), pageable));
     }
 
-    public List<PedidoResponse> getPedidosByClienteEmail(String email) {
-        List<Pedido> pedidos = pedidoRepository.findByClienteEmail(email);
-        return pedidos.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PedidoPage getPedidosByClienteEmail(String email, String cursor, Integer limit) {
+        return page(cursor, limit, (after, pageable) ->
+                pedidoRepository.findPageByClienteEmail(email, after.createdAt(), after.id(), pageable));
     }
 
-    public List<PedidoResponse> getPedidosByMotoristaId(Long motoristaId) {
-        List<Pedido> pedidos = pedidoRepository.findByMotoristaId(motoristaId);
-        return pedidos.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PedidoPage getPedidosByMotoristaId(Long motoristaId, String cursor, Integer limit) {
+        return page(cursor, limit, (after, pageable) ->
+                pedidoRepository.findPageByMotoristaId(motoristaId, after.createdAt(), after.id(), pageable));
     }
 
-    public List<PedidoResponse> getPedidosByStatus(PedidoStatus status) {
-        List<Pedido> pedidos = pedidoRepository.findByStatus(status);
-        return pedidos.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PedidoPage getPedidosByStatus(PedidoStatus status, String cursor, Integer limit) {
+        return page(cursor, limit, (after, pageable) ->
+                pedidoRepository.findPageByStatus(status, after.createdAt(), after.id(), pageable));
     }
 
+    @Transactional
     public PedidoResponse updatePedidoStatus(Long id, UpdatePedidoStatusRequest request, String userToken) {
         Optional<Pedido> pedidoOpt = pedidoRepository.findById(id);
         if (pedidoOpt.isPresent()) {
@@ -116,13 +139,16 @@ public class PedidoService {
             
             Pedido updatedPedido = pedidoRepository.save(pedido);
             
-            if (request.getStatus() == PedidoStatus.DELIVERED && previousStatus != PedidoStatus.DELIVERED && userToken != null) {
+            if (request.getStatus() == PedidoStatus.DELIVERED && previousStatus != PedidoStatus.DELIVERED) {
                 notificationClientService.notifyClientOfPedidoCompletion(
-                    userToken,
                     updatedPedido.getClienteId(),
                     updatedPedido.getId(),
                     updatedPedido.getDestinationAddress()
                 );
+                if (userToken != null) {
+                    Long pedidoId = updatedPedido.getId();
+                    afterCommit(() -> rastreamentoClientService.archivePedidoTrail(userToken, pedidoId));
+                }
             }
             
             return convertToResponse(updatedPedido);
@@ -130,6 +156,21 @@ public class PedidoService {
         throw new PedidoException("Pedido não encontrado com ID: " + id);
     }
 
+    // Chamadas a outros serviços só saem depois do commit: se a transação for
+    // desfeita, o pedido não foi entregue e a trilha não pode ser arquivada.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     public void deletePedido(Long id) {
         Optional<Pedido> pedido = pedidoRepository.findById(id);
         if (pedido.isPresent()) {
@@ -139,62 +180,53 @@ public class PedidoService {
         }
     }
 
-    public List<PedidoResponse> getPedidosByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Pedido> pedidos = pedidoRepository.findByCreatedAtBetween(startDate, endDate);
-        return pedidos.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PedidoPage getPedidosByDateRange(LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer limit) {
+        return page(cursor, limit, (after, pageable) ->
+                pedidoRepository.findPageByCreatedAtBetween(startDate, endDate, after.createdAt(), after.id(), pageable));
     }
 
-    public List<PedidoResponse> getPedidosByClienteAndStatus(Long clienteId, PedidoStatus status) {
-        List<Pedido> pedidos = pedidoRepository.findByClienteIdAndStatus(clienteId, status);
-        return pedidos.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PedidoPage getPedidosByClienteAndStatus(Long clienteId, PedidoStatus status, String cursor, Integer limit) {
+        return page(cursor, limit, (after, pageable) ->
+                pedidoRepository.findPageByClienteIdAndStatus(clienteId, status, after.createdAt(), after.id(), pageable));
     }
 
-    public List<PedidoResponse> getAvailablePedidos() {
-        List<Pedido> pedidos = pedidoRepository.findAvailablePedidos(PedidoStatus.PENDING);
-        return pedidos.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public PedidoPage getAvailablePedidos(String cursor, Integer limit) {
+        return page(cursor, limit, (after, pageable) ->
+                pedidoRepository.findAvailablePage(after.createdAt(), after.id(), pageable));
     }
 
-    public PedidoResponse claimPedido(Long pedidoId, Long motoristaId, String userToken) {
-        Optional<Pedido> pedidoOpt = pedidoRepository.findById(pedidoId);
-        if (pedidoOpt.isEmpty()) {
-            throw new PedidoException("Pedido não encontrado com ID: " + pedidoId);
-        }
-
-        Pedido pedido = pedidoOpt.get();
-        
-        if (pedido.getStatus() != PedidoStatus.PENDING) {
-            throw new PedidoException("Pedido não está disponível para reivindicação. Status atual: " + pedido.getStatus());
-        }
-        
-        if (pedido.getMotoristaId() != null) {
+    @Transactional
+    public PedidoResponse claimPedido(Long pedidoId, Long motoristaId) {
+        if (!tryClaimPedido(pedidoId, motoristaId)) {
+            Pedido pedido = pedidoRepository.findById(pedidoId)
+                    .orElseThrow(() -> new PedidoException("Pedido não encontrado com ID: " + pedidoId));
+            if (pedido.getStatus() != PedidoStatus.PENDING) {
+                throw new PedidoException("Pedido não está disponível para reivindicação. Status atual: " + pedido.getStatus());
+            }
             throw new PedidoException("Pedido já foi atribuído a um motorista");
         }
 
-        pedido.setMotoristaId(motoristaId);
-        pedido.setStatus(PedidoStatus.ACCEPTED);
-        pedido.setUpdatedAt(LocalDateTime.now());
-
-        Pedido savedPedido = pedidoRepository.save(pedido);
+        Pedido savedPedido = pedidoRepository.findById(pedidoId)
+                .orElseThrow(() -> new PedidoException("Pedido não encontrado com ID: " + pedidoId));
         
-        if (userToken != null) {
-            notificationClientService.notifyClientOfPedidoPickup(
-                userToken,
-                savedPedido.getClienteId(),
-                savedPedido.getId(),
-                savedPedido.getOriginAddress(),
-                savedPedido.getDestinationAddress()
-            );
-        }
+        notificationClientService.notifyClientOfPedidoPickup(
+            savedPedido.getClienteId(),
+            savedPedido.getId(),
+            savedPedido.getOriginAddress(),
+            savedPedido.getDestinationAddress()
+        );
         
         return convertToResponse(savedPedido);
     }
 
+    /**
+     * Tenta atribuir o pedido ao motorista. Com vários motoristas disputando o
+     * mesmo pedido, apenas um recebe {@code true}.
+     */
+    public boolean tryClaimPedido(Long pedidoId, Long motoristaId) {
+        return pedidoRepository.claimPedido(pedidoId, motoristaId, LocalDateTime.now()) == 1;
+    }
+
     public boolean isPedidoAvailableForClaiming(Long pedidoId) {
         Optional<Pedido> pedidoOpt = pedidoRepository.findById(pedidoId);
         if (pedidoOpt.isEmpty()) {
@@ -205,16 +237,24 @@ public class PedidoService {
         return pedido.getStatus() == PedidoStatus.PENDING && pedido.getMotoristaId() == null;
     }
 
-    public PedidoResponse createPedido(CreatePedidoRequest request) {
-        return createPedido(request, null);
-    }
-
     public PedidoResponse updatePedidoStatus(Long id, UpdatePedidoStatusRequest request) {
         return updatePedidoStatus(id, request, null);
     }
 
-    public PedidoResponse claimPedido(Long pedidoId, Long motoristaId) {
-        return claimPedido(pedidoId, motoristaId, null);
+    /**
+     * Busca uma linha além do limite para saber se existe próxima página sem
+     * precisar de uma consulta de contagem.
+     */
+    private PedidoPage page(String cursor, Integer limit,
+                            BiFunction<PedidoCursor, Pageable, List<PedidoSummaryResponse>> query) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<PedidoSummaryResponse> rows = query.apply(PedidoCursor.decode(cursor), PageRequest.ofSize(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new PedidoPage(rows, null);
+        }
+        List<PedidoSummaryResponse> items = rows.subList(0, pageSize);
+        PedidoSummaryResponse last = items.get(pageSize - 1);
+        return new PedidoPage(items, new PedidoCursor(last.getCreatedAt(), last.getId()).encode());
     }
 
     private PedidoResponse convertToResponse(Pedido pedido) {
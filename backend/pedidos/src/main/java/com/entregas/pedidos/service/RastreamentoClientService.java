@@ -0,0 +1,49 @@
+package com.entregas.pedidos.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Service
+public class RastreamentoClientService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RastreamentoClientService.class);
+    private final WebClient webClient;
+
+    @Value("${services.rastreamento.url}")
+    private String rastreamentoServiceUrl;
+
+    public RastreamentoClientService(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.build();
+    }
+
+    /**
+     * Pede ao serviço de rastreamento que arquive a trilha do pedido entregue.
+     * Se a chamada falhar, a varredura periódica do rastreamento arquiva a
+     * trilha mais tarde.
+     */
+    public void archivePedidoTrail(String token, Long pedidoId) {
+        try {
+            logger.debug("Requesting trail archive for pedido: {}", pedidoId);
+
+            webClient.post()
+                    .uri(rastreamentoServiceUrl + "/api/localizacoes/pedido/{pedidoId}/archive", pedidoId)
+                    .header("Authorization", "Bearer " + token)
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .timeout(Duration.ofSeconds(30))
+                    .subscribe(
+                        response -> logger.debug("Archived trail for pedido {}: {}", pedidoId, response),
+                        error -> logger.warn("Failed to archive trail for pedido {}: {}", pedidoId, error.getMessage())
+                    );
+
+        } catch (Exception e) {
+            logger.error("Error requesting trail archive for pedido {}: {}", pedidoId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.entregas.pedidos.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.function.Consumer;
+
+/**
+ * Assina a identidade do próprio serviço de pedidos nas chamadas que não são
+ * feitas em nome de um usuário, como as do relay da outbox. Usa os mesmos
+ * cabeçalhos e a mesma chave da identidade repassada pelo gateway, com o tipo
+ * {@code SERVICE}.
+ */
+@Service
+public class ServiceIdentitySigner {
+
+    public static final String SERVICE_USER_TYPE = "SERVICE";
+
+    private static final long SERVICE_USER_ID = 0L;
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String USER_TYPE_HEADER = "X-User-Type";
+    private static final String TIMESTAMP_HEADER = "X-Identity-Timestamp";
+    private static final String SIGNATURE_HEADER = "X-Identity-Signature";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    public ServiceIdentitySigner(@Value("${auth.gateway.secret}") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+            }
+        });
+    }
+
+    /**
+     * Cabeçalhos de identidade para uma requisição com o método e o path
+     * informados, assinados agora.
+     */
+    public Consumer<HttpHeaders> headers(String method, String path) {
+        long timestamp = System.currentTimeMillis();
+        String canonical = method + "\n" + path + "\n" + SERVICE_USER_ID + "\n" + SERVICE_USER_TYPE + "\n" + timestamp;
+        byte[] signature = mac.get().doFinal(canonical.getBytes(StandardCharsets.UTF_8));
+        String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        return headers -> {
+            headers.set(USER_ID_HEADER, String.valueOf(SERVICE_USER_ID));
+            headers.set(USER_TYPE_HEADER, SERVICE_USER_TYPE);
+            headers.set(TIMESTAMP_HEADER, String.valueOf(timestamp));
+            headers.set(SIGNATURE_HEADER, encoded);
+        };
+    }
+}
@@ -0,0 +1,28 @@
+CREATE TABLE pedidos (
+    id                    BIGSERIAL PRIMARY KEY,
+    cliente_id            BIGINT,
+    origin_address        VARCHAR(255),
+    destination_address   VARCHAR(255),
+    origin_latitude       DOUBLE PRECISION,
+    origin_longitude      DOUBLE PRECISION,
+    destination_latitude  DOUBLE PRECISION,
+    destination_longitude DOUBLE PRECISION,
+    cliente_nome          VARCHAR(255),
+    cliente_email         VARCHAR(255),
+    cliente_telefone      VARCHAR(255),
+    cargo_type            VARCHAR(255),
+    cargo_weight          DOUBLE PRECISION,
+    cargo_dimensions      VARCHAR(255),
+    special_instructions  VARCHAR(255),
+    status                VARCHAR(255)
+        CHECK (status IN ('PENDING', 'ACCEPTED', 'IN_TRANSIT', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED', 'FAILED')),
+    motorista_id          BIGINT,
+    estimated_distance    DOUBLE PRECISION,
+    estimated_duration    INTEGER,
+    total_price           DOUBLE PRECISION,
+    created_at            TIMESTAMP(6),
+    updated_at            TIMESTAMP(6),
+    delivered_at          TIMESTAMP(6),
+    delivery_photo_url    VARCHAR(255),
+    delivery_signature    VARCHAR(255)
+);
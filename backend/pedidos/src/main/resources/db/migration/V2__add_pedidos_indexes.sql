@@ -0,0 +1,11 @@
+-- Listagens paginadas: filtro por igualdade seguido de ORDER BY created_at DESC, id DESC
+-- com o cursor (created_at, id), então cada índice termina em (created_at, id).
+CREATE INDEX idx_pedidos_created_at_id ON pedidos (created_at, id);
+CREATE INDEX idx_pedidos_cliente_id_created_at ON pedidos (cliente_id, created_at, id);
+CREATE INDEX idx_pedidos_cliente_email_created_at ON pedidos (cliente_email, created_at, id);
+CREATE INDEX idx_pedidos_motorista_id_created_at ON pedidos (motorista_id, created_at, id);
+CREATE INDEX idx_pedidos_status_created_at ON pedidos (status, created_at, id);
+
+-- Pedidos disponíveis para reivindicação: apenas a fração pendente e sem motorista.
+CREATE INDEX idx_pedidos_available ON pedidos (created_at, id)
+    WHERE status = 'PENDING' AND motorista_id IS NULL;
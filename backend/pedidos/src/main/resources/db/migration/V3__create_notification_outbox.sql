@@ -0,0 +1,26 @@
+-- Notificações dos eventos de pedido, gravadas na mesma transação da mudança
+-- no pedido e entregues ao serviço de notificações pelo relay.
+CREATE TABLE notification_outbox (
+    id               BIGSERIAL PRIMARY KEY,
+    dedup_key        VARCHAR(255) NOT NULL,
+    pedido_id        BIGINT NOT NULL,
+    endpoint         VARCHAR(255) NOT NULL,
+    payload          TEXT NOT NULL,
+    auth_token       TEXT,
+    status           VARCHAR(20) NOT NULL,
+    attempts         INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP(6) NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    sent_at          TIMESTAMP(6),
+    last_error       VARCHAR(1000)
+);
+
+-- Um evento por chave: o mesmo evento do mesmo pedido não é enfileirado duas vezes.
+CREATE UNIQUE INDEX idx_notification_outbox_dedup_key ON notification_outbox (dedup_key);
+
+-- Busca dos eventos prontos para envio e da ordem dos eventos de cada pedido.
+CREATE INDEX idx_notification_outbox_pending ON notification_outbox (next_attempt_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_notification_outbox_pending_pedido ON notification_outbox (pedido_id, id) WHERE status = 'PENDING';
+
+-- Limpeza dos eventos já finalizados.
+CREATE INDEX idx_notification_outbox_created_at ON notification_outbox (created_at) WHERE status <> 'PENDING';
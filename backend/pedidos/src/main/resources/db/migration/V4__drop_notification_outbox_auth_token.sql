@@ -0,0 +1,3 @@
+-- O relay se autentica como o serviço de pedidos (identidade assinada com
+-- auth.gateway.secret) e não guarda mais o token do usuário na outbox.
+ALTER TABLE notification_outbox DROP COLUMN auth_token;
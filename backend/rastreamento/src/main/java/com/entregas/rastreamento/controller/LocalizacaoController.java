@@ -1,8 +1,14 @@
 package com.entregas.rastreamento.controller;
 
+import com.entregas.rastreamento.dto.LocalizacaoBatchUpdateRequest;
 import com.entregas.rastreamento.dto.LocalizacaoResponse;
 import com.entregas.rastreamento.dto.LocalizacaoUpdateRequest;
+import com.entregas.rastreamento.dto.NearbyDriverResponse;
+import com.entregas.rastreamento.dto.TrailArchiveResponse;
+import com.entregas.rastreamento.dto.TrailPolylineResponse;
+import com.entregas.rastreamento.dto.ViewportRequest;
 import com.entregas.rastreamento.service.LocalizacaoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,8 +18,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,6 +35,9 @@ public class LocalizacaoController {
     @Autowired
     private LocalizacaoService localizacaoService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/update")
     @Operation(summary = "Atualizar localização", description = "Atualiza a localização de um motorista")
     @ApiResponses(value = {
@@ -40,6 +51,19 @@ public class LocalizacaoController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/update/batch")
+    @Operation(summary = "Atualizar localizações em lote", description = "Registra em uma única requisição as localizações acumuladas pelo aplicativo enquanto estava offline. Apenas a localização mais recente de cada motorista e pedido é transmitida via WebSocket")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Localizações registradas com sucesso",
+                    content = @Content(schema = @Schema(implementation = LocalizacaoResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<List<LocalizacaoResponse>> updateLocations(@Valid @RequestBody LocalizacaoBatchUpdateRequest request) {
+        List<LocalizacaoResponse> responses = localizacaoService.updateLocations(request.getLocations());
+        return ResponseEntity.ok(responses);
+    }
+
     @GetMapping("/driver/{driverId}/latest")
     @Operation(summary = "Obter última localização do motorista", description = "Retorna a última localização conhecida de um motorista")
     @ApiResponses(value = {
@@ -53,6 +77,41 @@ public class LocalizacaoController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/viewport")
+    @Operation(summary = "Obter motoristas na área", description = "Retorna a posição atual dos motoristas dentro da área informada. Use como estado inicial antes de assinar /topic/viewport/{viewportId} via WebSocket")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Localizações encontradas",
+                    content = @Content(schema = @Schema(implementation = LocalizacaoResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Coordenadas inválidas"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<List<LocalizacaoResponse>> getLocationsInViewport(
+            @RequestParam Double minLatitude,
+            @RequestParam Double minLongitude,
+            @RequestParam Double maxLatitude,
+            @RequestParam Double maxLongitude) {
+        ViewportRequest viewport = new ViewportRequest(minLatitude, minLongitude, maxLatitude, maxLongitude);
+        List<LocalizacaoResponse> responses = localizacaoService.getLocationsInViewport(viewport);
+        return ResponseEntity.ok(responses);
+    }
+
+    @GetMapping("/nearby")
+    @Operation(summary = "Obter motoristas próximos", description = "Retorna os k motoristas mais próximos do ponto dentro do raio informado, ordenados pela distância. Considera apenas motoristas com posição recente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Motoristas encontrados",
+                    content = @Content(schema = @Schema(implementation = NearbyDriverResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Coordenadas ou raio inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<List<NearbyDriverResponse>> getNearbyDrivers(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(defaultValue = "5") Double radiusKm,
+            @RequestParam(defaultValue = "10") Integer k) {
+        List<NearbyDriverResponse> responses = localizacaoService.getNearbyDrivers(lat, lng, radiusKm, k);
+        return ResponseEntity.ok(responses);
+    }
+
     @GetMapping("/pedido/{pedidoId}/latest")
     @Operation(summary = "Obter última localização do pedido", description = "Retorna a última localização conhecida de um pedido")
     @ApiResponses(value = {
@@ -67,29 +126,95 @@ public class LocalizacaoController {
     }
 
     @GetMapping("/driver/{driverId}")
-    @Operation(summary = "Obter todas as localizações do motorista", description = "Retorna todas as localizações de um motorista")
+    @Operation(summary = "Obter todas as localizações do motorista", description = "Retorna todas as localizações de um motorista. Com tolerance (metros) a trilha é simplificada por Douglas-Peucker; com maxPoints é reduzida por Visvalingam-Whyatt até esse limite. Primeiro e último pontos são sempre mantidos")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Localizações encontradas",
                     content = @Content(schema = @Schema(implementation = LocalizacaoResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Parâmetros de simplificação inválidos"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
-    public ResponseEntity<List<LocalizacaoResponse>> getLocationsByDriverId(@PathVariable Long driverId) {
-        List<LocalizacaoResponse> responses = localizacaoService.getLocationsByDriverId(driverId);
+    public ResponseEntity<List<LocalizacaoResponse>> getLocationsByDriverId(
+            @PathVariable Long driverId,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(required = false) Integer maxPoints) {
+        List<LocalizacaoResponse> responses = localizacaoService.getLocationsByDriverId(driverId, tolerance, maxPoints);
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping(value = "/driver/{driverId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar localizações do motorista", description = "Histórico completo do motorista em NDJSON (uma localização por linha, da mais recente à mais antiga), enviado à medida que as linhas são lidas do banco")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Localizações em NDJSON",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = LocalizacaoResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<StreamingResponseBody> streamLocationsByDriverId(@PathVariable Long driverId) {
+        return NdjsonResponse.of(objectMapper, LocalizacaoResponse.class,
+                consumer -> localizacaoService.streamLocationsByDriverId(driverId, consumer));
+    }
+
+    @GetMapping("/driver/{driverId}/polyline")
+    @Operation(summary = "Obter trilha do motorista como polyline", description = "Retorna a trilha do motorista em ordem cronológica codificada no formato polyline do Google Maps (precisão de 1e-5 grau), com a mesma simplificação opcional de /driver/{driverId}")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Trilha codificada",
+                    content = @Content(schema = @Schema(implementation = TrailPolylineResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Parâmetros de simplificação inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<TrailPolylineResponse> getDriverPolyline(
+            @PathVariable Long driverId,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(required = false) Integer maxPoints) {
+        TrailPolylineResponse response = localizacaoService.getDriverPolyline(driverId, tolerance, maxPoints);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/pedido/{pedidoId}")
-    @Operation(summary = "Obter todas as localizações do pedido", description = "Retorna todas as localizações de um pedido")
+    @Operation(summary = "Obter todas as localizações do pedido", description = "Retorna todas as localizações de um pedido. Com tolerance (metros) a trilha é simplificada por Douglas-Peucker; com maxPoints é reduzida por Visvalingam-Whyatt até esse limite. Primeiro e último pontos são sempre mantidos")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Localizações encontradas",
                     content = @Content(schema = @Schema(implementation = LocalizacaoResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Parâmetros de simplificação inválidos"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
-    public ResponseEntity<List<LocalizacaoResponse>> getLocationsByPedidoId(@PathVariable Long pedidoId) {
-        List<LocalizacaoResponse> responses = localizacaoService.getLocationsByPedidoId(pedidoId);
+    public ResponseEntity<List<LocalizacaoResponse>> getLocationsByPedidoId(
+            @PathVariable Long pedidoId,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(required = false) Integer maxPoints) {
+        List<LocalizacaoResponse> responses = localizacaoService.getLocationsByPedidoId(pedidoId, tolerance, maxPoints);
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping("/pedido/{pedidoId}/polyline")
+    @Operation(summary = "Obter trilha do pedido como polyline", description = "Retorna a trilha do pedido, incluindo a parte arquivada, em ordem cronológica codificada no formato polyline do Google Maps (precisão de 1e-5 grau), com a mesma simplificação opcional de /pedido/{pedidoId}")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Trilha codificada",
+                    content = @Content(schema = @Schema(implementation = TrailPolylineResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Parâmetros de simplificação inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<TrailPolylineResponse> getPedidoPolyline(
+            @PathVariable Long pedidoId,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(required = false) Integer maxPoints) {
+        TrailPolylineResponse response = localizacaoService.getPedidoPolyline(pedidoId, tolerance, maxPoints);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/pedido/{pedidoId}/archive")
+    @Operation(summary = "Arquivar trilha do pedido",
+            description = "Compacta as localizações do pedido em um único registro e as remove da tabela de localizações. " +
+                    "As consultas por pedido continuam retornando a trilha completa. Chamado quando o pedido é entregue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Trilha arquivada",
+                    content = @Content(schema = @Schema(implementation = TrailArchiveResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Nenhuma localização para o pedido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<TrailArchiveResponse> archiveTrail(@PathVariable Long pedidoId) {
+        return ResponseEntity.ok(localizacaoService.archiveTrail(pedidoId));
+    }
+
     @GetMapping("/driver/{driverId}/timerange")
     @Operation(summary = "Obter localizações do motorista por período", description = "Retorna localizações de um motorista em um período específico")
     @ApiResponses(value = {
@@ -131,6 +256,19 @@ public class LocalizacaoController {
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping(value = "/active/since/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar localizações ativas desde", description = "Mesmo resultado de /active/since em NDJSON (uma localização por linha), enviado à medida que as linhas são lidas do banco. Use para intervalos grandes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Localizações em NDJSON",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = LocalizacaoResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<StreamingResponseBody> streamActiveLocationsSince(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
+        return NdjsonResponse.of(objectMapper, LocalizacaoResponse.class,
+                consumer -> localizacaoService.streamActiveLocationsSince(startTime, consumer));
+    }
+
     @GetMapping("/driver/{driverId}/pedido/{pedidoId}")
     @Operation(summary = "Obter localizações por motorista e pedido", description = "Retorna localizações de um motorista para um pedido específico")
     @ApiResponses(value = {
@@ -0,0 +1,38 @@
+package com.entregas.rastreamento.controller;
+
+import com.entregas.rastreamento.dto.ViewportRequest;
+import com.entregas.rastreamento.service.ViewportRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Registro de viewports via STOMP. O cliente assina
+ * {@code /topic/viewport/{viewportId}} e envia a área visível para
+ * {@code /app/viewport/{viewportId}}; a partir daí recebe apenas as posições
+ * dos motoristas dentro da área. O registro é desfeito com
+ * {@code /app/viewport/{viewportId}/remove} ou ao desconectar.
+ */
+@Controller
+public class ViewportController {
+
+    @Autowired
+    private ViewportRegistry viewportRegistry;
+
+    @MessageMapping("/viewport/{viewportId}")
+    public void registerViewport(@DestinationVariable String viewportId,
+                                 @Payload ViewportRequest request,
+                                 @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        viewportRegistry.register(sessionId, viewportId, request);
+    }
+
+    @MessageMapping("/viewport/{viewportId}/remove")
+    public void removeViewport(@DestinationVariable String viewportId,
+                               @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        viewportRegistry.unregister(sessionId, viewportId);
+    }
+}
@@ -0,0 +1,34 @@
+package com.entregas.rastreamento.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Objeto de requisição para envio em lote de localizações acumuladas pelo aplicativo")
+public class LocalizacaoBatchUpdateRequest {
+
+    public static final int MAX_LOCATIONS = 1000;
+
+    @Schema(description = "Localizações a registrar, cada uma com o seu timestamp de captura", required = true)
+    @NotEmpty(message = "A lista de localizações é obrigatória")
+    @Size(max = MAX_LOCATIONS, message = "Máximo de " + MAX_LOCATIONS + " localizações por lote")
+    @Valid
+    private List<LocalizacaoUpdateRequest> locations;
+
+    public LocalizacaoBatchUpdateRequest() {}
+
+    public LocalizacaoBatchUpdateRequest(List<LocalizacaoUpdateRequest> locations) {
+        this.locations = locations;
+    }
+
+    public List<LocalizacaoUpdateRequest> getLocations() {
+        return locations;
+    }
+
+    public void setLocations(List<LocalizacaoUpdateRequest> locations) {
+        this.locations = locations;
+    }
+}
@@ -48,6 +48,24 @@ public class LocalizacaoResponse {
 
     public LocalizacaoResponse() {}
 
+    public LocalizacaoResponse(Long id, Long driverId, Double latitude, Double longitude, Double altitude,
+                               Double speed, Double heading, Double accuracy, LocalDateTime timestamp,
+                               Long pedidoId, Boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.driverId = driverId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.altitude = altitude;
+        this.speed = speed;
+        this.heading = heading;
+        this.accuracy = accuracy;
+        this.timestamp = timestamp;
+        this.pedidoId = pedidoId;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     public Long getId() {
         return id;
     }
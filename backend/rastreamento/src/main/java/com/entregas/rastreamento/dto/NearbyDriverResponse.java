@@ -0,0 +1,48 @@
+package com.entregas.rastreamento.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Motorista próximo a um ponto, com a distância até ele")
+public class NearbyDriverResponse {
+
+    @Schema(description = "ID do motorista", example = "123")
+    private Long driverId;
+
+    @Schema(description = "Distância em linha reta até o ponto, em km", example = "1.27")
+    private Double distanceKm;
+
+    @Schema(description = "Localização atual do motorista")
+    private LocalizacaoResponse location;
+
+    public NearbyDriverResponse() {}
+
+    public NearbyDriverResponse(Long driverId, Double distanceKm, LocalizacaoResponse location) {
+        this.driverId = driverId;
+        this.distanceKm = distanceKm;
+        this.location = location;
+    }
+
+    public Long getDriverId() {
+        return driverId;
+    }
+
+    public void setDriverId(Long driverId) {
+        this.driverId = driverId;
+    }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public LocalizacaoResponse getLocation() {
+        return location;
+    }
+
+    public void setLocation(LocalizacaoResponse location) {
+        this.location = location;
+    }
+}
@@ -0,0 +1,87 @@
+package com.entregas.rastreamento.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Resumo da trilha arquivada de um pedido")
+public class TrailArchiveResponse {
+
+    @Schema(description = "ID do pedido", example = "1001")
+    private Long pedidoId;
+
+    @Schema(description = "Quantidade de localizações no arquivo", example = "720")
+    private Integer pointCount;
+
+    @Schema(description = "Tamanho do arquivo em bytes", example = "11840")
+    private Integer sizeBytes;
+
+    @Schema(description = "Timestamp da primeira localização", example = "2024-04-15T12:00:00")
+    private LocalDateTime firstTimestamp;
+
+    @Schema(description = "Timestamp da última localização", example = "2024-04-15T13:00:00")
+    private LocalDateTime lastTimestamp;
+
+    @Schema(description = "Momento do arquivamento", example = "2024-04-15T13:05:00")
+    private LocalDateTime archivedAt;
+
+    public TrailArchiveResponse() {}
+
+    public TrailArchiveResponse(Long pedidoId, Integer pointCount, Integer sizeBytes,
+                                LocalDateTime firstTimestamp, LocalDateTime lastTimestamp, LocalDateTime archivedAt) {
+        this.pedidoId = pedidoId;
+        this.pointCount = pointCount;
+        this.sizeBytes = sizeBytes;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.archivedAt = archivedAt;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public void setPedidoId(Long pedidoId) {
+        this.pedidoId = pedidoId;
+    }
+
+    public Integer getPointCount() {
+        return pointCount;
+    }
+
+    public void setPointCount(Integer pointCount) {
+        this.pointCount = pointCount;
+    }
+
+    public Integer getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Integer sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public LocalDateTime getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public void setFirstTimestamp(LocalDateTime firstTimestamp) {
+        this.firstTimestamp = firstTimestamp;
+    }
+
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(LocalDateTime lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
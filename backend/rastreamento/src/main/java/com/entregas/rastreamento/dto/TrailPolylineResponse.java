@@ -0,0 +1,66 @@
+package com.entregas.rastreamento.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Trilha codificada no formato polyline do Google Maps")
+public class TrailPolylineResponse {
+
+    @Schema(description = "Pontos da trilha em ordem cronológica, codificados como polyline (precisão de 1e-5 grau)", example = "_p~iF~ps|U_ulLnnqC_mqNvxq`@")
+    private String polyline;
+
+    @Schema(description = "Quantidade de pontos na polyline", example = "120")
+    private Integer pointCount;
+
+    @Schema(description = "Quantidade de localizações antes da simplificação", example = "720")
+    private Integer sourcePointCount;
+
+    @Schema(description = "Timestamp da primeira localização", example = "2024-04-15T12:00:00")
+    private LocalDateTime startTime;
+
+    @Schema(description = "Timestamp da última localização", example = "2024-04-15T13:00:00")
+    private LocalDateTime endTime;
+
+    public TrailPolylineResponse() {}
+
+    public String getPolyline() {
+        return polyline;
+    }
+
+    public void setPolyline(String polyline) {
+        this.polyline = polyline;
+    }
+
+    public Integer getPointCount() {
+        return pointCount;
+    }
+
+    public void setPointCount(Integer pointCount) {
+        this.pointCount = pointCount;
+    }
+
+    public Integer getSourcePointCount() {
+        return sourcePointCount;
+    }
+
+    public void setSourcePointCount(Integer sourcePointCount) {
+        this.sourcePointCount = sourcePointCount;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+}
@@ -0,0 +1,81 @@
+package com.entregas.rastreamento.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Área retangular do mapa (bounding box) visível no cliente")
+public class ViewportRequest {
+
+    @Schema(description = "Latitude mínima (sul)", example = "-23.60", required = true)
+    @NotNull(message = "Latitude mínima é obrigatória")
+    @DecimalMin(value = "-90.0", message = "Latitude deve estar entre -90 e 90")
+    @DecimalMax(value = "90.0", message = "Latitude deve estar entre -90 e 90")
+    private Double minLatitude;
+
+    @Schema(description = "Longitude mínima (oeste)", example = "-46.70", required = true)
+    @NotNull(message = "Longitude mínima é obrigatória")
+    @DecimalMin(value = "-180.0", message = "Longitude deve estar entre -180 e 180")
+    @DecimalMax(value = "180.0", message = "Longitude deve estar entre -180 e 180")
+    private Double minLongitude;
+
+    @Schema(description = "Latitude máxima (norte)", example = "-23.50", required = true)
+    @NotNull(message = "Latitude máxima é obrigatória")
+    @DecimalMin(value = "-90.0", message = "Latitude deve estar entre -90 e 90")
+    @DecimalMax(value = "90.0", message = "Latitude deve estar entre -90 e 90")
+    private Double maxLatitude;
+
+    @Schema(description = "Longitude máxima (leste)", example = "-46.60", required = true)
+    @NotNull(message = "Longitude máxima é obrigatória")
+    @DecimalMin(value = "-180.0", message = "Longitude deve estar entre -180 e 180")
+    @DecimalMax(value = "180.0", message = "Longitude deve estar entre -180 e 180")
+    private Double maxLongitude;
+
+    public ViewportRequest() {}
+
+    public ViewportRequest(Double minLatitude, Double minLongitude, Double maxLatitude, Double maxLongitude) {
+        this.minLatitude = minLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLatitude = maxLatitude;
+        this.maxLongitude = maxLongitude;
+    }
+
+    public boolean isValid() {
+        return minLatitude != null && minLongitude != null && maxLatitude != null && maxLongitude != null
+                && minLatitude >= -90.0 && maxLatitude <= 90.0 && minLongitude >= -180.0 && maxLongitude <= 180.0
+                && minLatitude <= maxLatitude && minLongitude <= maxLongitude;
+    }
+
+    public Double getMinLatitude() {
+        return minLatitude;
+    }
+
+    public void setMinLatitude(Double minLatitude) {
+        this.minLatitude = minLatitude;
+    }
+
+    public Double getMinLongitude() {
+        return minLongitude;
+    }
+
+    public void setMinLongitude(Double minLongitude) {
+        this.minLongitude = minLongitude;
+    }
+
+    public Double getMaxLatitude() {
+        return maxLatitude;
+    }
+
+    public void setMaxLatitude(Double maxLatitude) {
+        this.maxLatitude = maxLatitude;
+    }
+
+    public Double getMaxLongitude() {
+        return maxLongitude;
+    }
+
+    public void setMaxLongitude(Double maxLongitude) {
+        this.maxLongitude = maxLongitude;
+    }
+}
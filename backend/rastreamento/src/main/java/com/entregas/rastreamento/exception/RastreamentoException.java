@@ -14,6 +14,10 @@ public class RastreamentoException extends RuntimeException {
         return new RastreamentoException("Coordenadas inválidas");
     }
     
+    public static RastreamentoException raioInvalido() {
+        return new RastreamentoException("Raio de busca inválido");
+    }
+    
     public static RastreamentoException motoristaNaoEncontrado() {
         return new RastreamentoException("Motorista não encontrado");
     }
@@ -25,4 +29,8 @@ public class RastreamentoException extends RuntimeException {
     public static RastreamentoException rastreamentoNaoAtivo() {
         return new RastreamentoException("Rastreamento não está ativo");
     }
+    
+    public static RastreamentoException simplificacaoInvalida() {
+        return new RastreamentoException("Parâmetros de simplificação inválidos");
+    }
 } 
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.entregas.rastreamento.filter;
 
+import com.entregas.rastreamento.service.GatewayIdentityVerifier;
+import com.entregas.rastreamento.service.LocalTokenVerifier;
 import com.entregas.rastreamento.service.TokenValidationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,17 +30,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private TokenValidationService tokenValidationService;
 
+    @Autowired
+    private LocalTokenVerifier localTokenVerifier;
+
+    @Autowired
+    private GatewayIdentityVerifier gatewayIdentityVerifier;
+
+    @Value("${auth.validation.mode:remote}")
+    private String validationMode;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
         try {
             String token = extractTokenFromRequest(request);
+            Map<String, Object> gatewayIdentity = "gateway".equalsIgnoreCase(validationMode)
+                    ? gatewayIdentityVerifier.getTokenInfo(request)
+                    : null;
             
-            if (StringUtils.hasText(token)) {
+            if (gatewayIdentity != null || StringUtils.hasText(token)) {
                 logger.debug("Processing JWT token for request: {}", request.getRequestURI());
                 
-                Map<String, Object> tokenInfo = tokenValidationService.getTokenInfo(token);
+                Map<String, Object> tokenInfo;
+                if (gatewayIdentity != null) {
+                    tokenInfo = gatewayIdentity;
+                } else if ("local".equalsIgnoreCase(validationMode) || "gateway".equalsIgnoreCase(validationMode)) {
+                    tokenInfo = localTokenVerifier.getTokenInfo(token);
+                } else {
+                    tokenInfo = tokenValidationService.getTokenInfo(token);
+                }
                 
                 if ((Boolean) tokenInfo.get("valid")) {
                     Long userId = (Long) tokenInfo.get("userId");
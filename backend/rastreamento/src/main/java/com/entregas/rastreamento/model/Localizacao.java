@@ -8,8 +8,12 @@ import java.time.LocalDateTime;
 @Table(name = "localizacoes")
 public class Localizacao {
 
+    public static final String ID_SEQUENCE = "localizacoes_id_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "localizacoes_id_gen")
+    @SequenceGenerator(name = "localizacoes_id_gen", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull(message = "Driver ID is required")
@@ -0,0 +1,43 @@
+package com.entregas.rastreamento.repository;
+
+import com.entregas.rastreamento.model.Localizacao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+public class LocalizacaoBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO localizacoes " +
+            "(id, driver_id, latitude, longitude, altitude, speed, heading, accuracy, timestamp, pedido_id, is_active, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insere as localizações com um único batch JDBC. Os ids e timestamps de
+     * auditoria já devem ter sido atribuídos pelo chamador.
+     */
+    public void insertAll(List<Localizacao> localizacoes) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, localizacoes, localizacoes.size(), (ps, l) -> {
+            ps.setLong(1, l.getId());
+            ps.setLong(2, l.getDriverId());
+            ps.setDouble(3, l.getLatitude());
+            ps.setDouble(4, l.getLongitude());
+            ps.setObject(5, l.getAltitude(), Types.DOUBLE);
+            ps.setObject(6, l.getSpeed(), Types.DOUBLE);
+            ps.setObject(7, l.getHeading(), Types.DOUBLE);
+            ps.setObject(8, l.getAccuracy(), Types.DOUBLE);
+            ps.setTimestamp(9, Timestamp.valueOf(l.getTimestamp()));
+            ps.setObject(10, l.getPedidoId(), Types.BIGINT);
+            ps.setBoolean(11, l.getIsActive());
+            ps.setTimestamp(12, l.getCreatedAt() != null ? Timestamp.valueOf(l.getCreatedAt()) : null);
+            ps.setTimestamp(13, l.getUpdatedAt() != null ? Timestamp.valueOf(l.getUpdatedAt()) : null);
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.entregas.rastreamento.repository;
+
+import com.entregas.rastreamento.model.Localizacao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserva ids de localização em blocos a partir da mesma sequence usada pelo
+ * Hibernate (otimizador pooled-lo: cada nextval é o início de um bloco de
+ * {@link Localizacao#ID_ALLOCATION_SIZE} ids), permitindo inserts em lote via
+ * JDBC sem conflitar com os inserts feitos pelo JPA.
+ */
+@Component
+public class LocalizacaoIdAllocator {
+
+    private static final String NEXT_VALUE_SQL = "SELECT nextval('" + Localizacao.ID_SEQUENCE + "')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long limit;
+
+    public long nextId() {
+        lock.lock();
+        try {
+            if (next >= limit) {
+                Long blockStart = jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Long.class);
+                next = blockStart;
+                limit = blockStart + Localizacao.ID_ALLOCATION_SIZE;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.entregas.rastreamento.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * DDL das partições diárias de {@code localizacoes} (ver migration V3). Cada
+ * partição se chama {@code localizacoes_pAAAAMMDD} e cobre um dia de
+ * {@code timestamp}; linhas fora delas caem em {@code localizacoes_default}.
+ */
+@Repository
+public class LocalizacaoPartitionRepository {
+
+    private static final String TABLE = "localizacoes";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final String ARCHIVE_PREFIX = TABLE + "_arquivo_";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final DateTimeFormatter DAY_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = '" + TABLE + "' AND p.relnamespace = to_regnamespace(current_schema())";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<String> findPartitions() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+    }
+
+    public void createDailyPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day) + " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+    }
+
+    public void dropPartition(LocalDate day) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(day));
+    }
+
+    /**
+     * Desanexa a partição e a mantém como tabela comum {@code localizacoes_arquivo_AAAAMMDD},
+     * fora das consultas do serviço, para exportação ou remoção posterior.
+     */
+    public void archivePartition(LocalDate day) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partitionName(day));
+        jdbcTemplate.execute("ALTER TABLE " + partitionName(day) + " RENAME TO " + ARCHIVE_PREFIX + day.format(DAY_SUFFIX));
+    }
+
+    public int deleteFromDefaultPartitionBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp < ?", Timestamp.valueOf(cutoff));
+    }
+
+    public static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(DAY_SUFFIX);
+    }
+
+    /**
+     * Dia coberto por uma partição diária, ou {@code null} para a partição padrão
+     * e tabelas que não seguem a convenção de nomes.
+     */
+    public static LocalDate partitionDay(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(PARTITION_PREFIX.length()), DAY_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
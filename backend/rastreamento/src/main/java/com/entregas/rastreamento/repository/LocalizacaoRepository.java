@@ -1,18 +1,32 @@
 package com.entregas.rastreamento.repository;
 
+import com.entregas.rastreamento.dto.LocalizacaoResponse;
 import com.entregas.rastreamento.model.Localizacao;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LocalizacaoRepository extends JpaRepository<Localizacao, Long> {
 
+    String RESPONSE_SELECT = "SELECT new com.entregas.rastreamento.dto.LocalizacaoResponse(" +
+            "l.id, l.driverId, l.latitude, l.longitude, l.altitude, l.speed, l.heading, l.accuracy, " +
+            "l.timestamp, l.pedidoId, l.isActive, l.createdAt, l.updatedAt) FROM Localizacao l ";
+
+    // Linhas buscadas por ida ao banco nas consultas em stream. O driver do
+    // PostgreSQL só usa cursor (em vez de carregar o resultado inteiro) dentro
+    // de uma transação, então os streams devem ser consumidos em @Transactional.
+    String STREAM_FETCH_SIZE = "1000";
+
     List<Localizacao> findByDriverIdOrderByTimestampDesc(Long driverId);
 
     List<Localizacao> findByPedidoIdOrderByTimestampDesc(Long pedidoId);
@@ -38,12 +52,28 @@ public interface LocalizacaoRepository extends JpaRepository<Localizacao, Long>
     @Query("SELECT l FROM Localizacao l WHERE l.isActive = true AND l.timestamp >= :startTime ORDER BY l.timestamp DESC")
     List<Localizacao> findActiveLocationsSince(@Param("startTime") LocalDateTime startTime);
 
+    @Query(RESPONSE_SELECT + "WHERE l.driverId = :driverId ORDER BY l.timestamp DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<LocalizacaoResponse> streamByDriverId(@Param("driverId") Long driverId);
+
+    @Query(RESPONSE_SELECT + "WHERE l.isActive = true AND l.timestamp >= :startTime ORDER BY l.timestamp DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<LocalizacaoResponse> streamActiveSince(@Param("startTime") LocalDateTime startTime);
+
     @Query("SELECT l FROM Localizacao l WHERE l.driverId = :driverId AND l.pedidoId = :pedidoId AND l.isActive = true ORDER BY l.timestamp DESC")
     List<Localizacao> findLocationsByDriverAndPedido(@Param("driverId") Long driverId, @Param("pedidoId") Long pedidoId);
 
     @Query("SELECT l FROM Localizacao l WHERE l.driverId = :driverId AND l.pedidoId = :pedidoId AND l.isActive = true ORDER BY l.timestamp DESC LIMIT 1")
     Optional<Localizacao> findLatestLocationByDriverAndPedido(@Param("driverId") Long driverId, @Param("pedidoId") Long pedidoId);
 
+    @Query("SELECT l FROM Localizacao l WHERE l.isActive = true AND l.timestamp = " +
+           "(SELECT MAX(l2.timestamp) FROM Localizacao l2 WHERE l2.driverId = l.driverId AND l2.isActive = true)")
+    List<Localizacao> findLatestActiveLocationPerDriver();
+
+    @Query("SELECT l FROM Localizacao l WHERE l.pedidoId IS NOT NULL AND l.isActive = true AND l.timestamp = " +
+           "(SELECT MAX(l2.timestamp) FROM Localizacao l2 WHERE l2.pedidoId = l.pedidoId AND l2.isActive = true)")
+    List<Localizacao> findLatestActiveLocationPerPedido();
+
     boolean existsByDriverIdAndIsActiveTrue(Long driverId);
 
     boolean existsByPedidoIdAndIsActiveTrue(Long pedidoId);
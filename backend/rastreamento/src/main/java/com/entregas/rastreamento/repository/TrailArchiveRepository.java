@@ -0,0 +1,90 @@
+package com.entregas.rastreamento.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class TrailArchiveRepository {
+
+    private static final String SELECT_SQL = "SELECT pedido_id, format_version, point_count, first_timestamp, last_timestamp, data, archived_at " +
+            "FROM trilhas_arquivadas WHERE pedido_id = ?";
+
+    private static final String UPSERT_SQL = "INSERT INTO trilhas_arquivadas " +
+            "(pedido_id, format_version, point_count, first_timestamp, last_timestamp, data, archived_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (pedido_id) DO UPDATE SET format_version = EXCLUDED.format_version, " +
+            "point_count = EXCLUDED.point_count, first_timestamp = EXCLUDED.first_timestamp, " +
+            "last_timestamp = EXCLUDED.last_timestamp, data = EXCLUDED.data, archived_at = EXCLUDED.archived_at";
+
+    // Os candidatos saem só das partições da janela anterior ao corte; o NOT
+    // EXISTS confirma pelo índice (pedido_id, timestamp) que o pedido não tem
+    // pings mais novos, sem agregar a retenção inteira.
+    private static final String IDLE_PEDIDOS_SQL = "SELECT c.pedido_id FROM (SELECT DISTINCT pedido_id FROM localizacoes " +
+            "WHERE pedido_id IS NOT NULL AND timestamp >= ? AND timestamp < ?) c " +
+            "WHERE NOT EXISTS (SELECT 1 FROM localizacoes n WHERE n.pedido_id = c.pedido_id AND n.timestamp >= ?) LIMIT ?";
+
+    private static final RowMapper<ArchivedTrail> ROW_MAPPER = (rs, rowNum) -> new ArchivedTrail(
+            rs.getLong("pedido_id"),
+            rs.getShort("format_version"),
+            rs.getInt("point_count"),
+            rs.getTimestamp("first_timestamp").toLocalDateTime(),
+            rs.getTimestamp("last_timestamp").toLocalDateTime(),
+            rs.getBytes("data"),
+            rs.getTimestamp("archived_at").toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Optional<ArchivedTrail> findByPedidoId(Long pedidoId) {
+        return jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, pedidoId).stream().findFirst();
+    }
+
+    public void save(ArchivedTrail trail) {
+        jdbcTemplate.update(UPSERT_SQL, trail.pedidoId(), trail.formatVersion(), trail.pointCount(),
+                Timestamp.valueOf(trail.firstTimestamp()), Timestamp.valueOf(trail.lastTimestamp()),
+                trail.data(), Timestamp.valueOf(trail.archivedAt()));
+    }
+
+    /**
+     * Serializa o arquivamento de um mesmo pedido entre instâncias até o fim da
+     * transação corrente.
+     */
+    public void lockPedido(Long pedidoId) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", pedidoId);
+    }
+
+    /**
+     * Remove de {@code localizacoes} apenas as linhas já gravadas no arquivo;
+     * pings que chegarem durante o arquivamento continuam na tabela.
+     */
+    public int deleteArchivedLocations(Long pedidoId, List<Long> ids) {
+        return jdbcTemplate.update("DELETE FROM localizacoes WHERE pedido_id = ? AND id = ANY(?)", ps -> {
+            Array array = ps.getConnection().createArrayOf("bigint", ids.toArray());
+            ps.setLong(1, pedidoId);
+            ps.setArray(2, array);
+        });
+    }
+
+    /**
+     * Pedidos cujo último ping está entre {@code windowStart} e {@code cutoff}.
+     * Pedidos parados desde antes de {@code windowStart} não são retornados.
+     */
+    public List<Long> findPedidosIdleSince(LocalDateTime windowStart, LocalDateTime cutoff, int limit) {
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff);
+        return jdbcTemplate.queryForList(IDLE_PEDIDOS_SQL, Long.class,
+                Timestamp.valueOf(windowStart), cutoffTimestamp, cutoffTimestamp, limit);
+    }
+
+    public record ArchivedTrail(long pedidoId, short formatVersion, int pointCount,
+                                LocalDateTime firstTimestamp, LocalDateTime lastTimestamp,
+                                byte[] data, LocalDateTime archivedAt) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.entregas.rastreamento.service;
+
+import com.entregas.rastreamento.dto.LocalizacaoResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice espacial em grade da posição atual de cada motorista. A grade divide o
+ * mapa em células de {@code cell-size-degrees}; cada célula guarda os motoristas
+ * que estão nela, então buscas por área visitam apenas as células envolvidas.
+ * Motoristas sem atualização há mais de {@code max-age} saem do índice.
+ */
+@Component
+public class DriverSpatialIndex {
+
+    private final double cellSize;
+    private final Duration maxAge;
+    private final Map<Long, Set<Long>> driversByCell = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedDriver> drivers = new ConcurrentHashMap<>();
+
+    public DriverSpatialIndex(@Value("${rastreamento.spatial.cell-size-degrees:0.01}") double cellSize,
+                              @Value("${rastreamento.spatial.max-age:15m}") Duration maxAge,
+                              MeterRegistry meterRegistry) {
+        this.cellSize = cellSize;
+        this.maxAge = maxAge;
+        Gauge.builder("rastreamento.spatial.drivers", drivers, Map::size)
+                .description("Motoristas no índice espacial")
+                .register(meterRegistry);
+    }
+
+    public void update(LocalizacaoResponse location) {
+        if (location.getDriverId() == null || location.getLatitude() == null || location.getLongitude() == null) {
+            return;
+        }
+        long cell = GeoGrid.cellOf(location.getLatitude(), location.getLongitude(), cellSize);
+        drivers.compute(location.getDriverId(), (driverId, current) -> {
+            if (current != null && location.getTimestamp() != null && current.location().getTimestamp() != null
+                    && location.getTimestamp().isBefore(current.location().getTimestamp())) {
+                return current;
+            }
+            if (current == null || current.cell() != cell) {
+                if (current != null) {
+                    removeFromCell(current.cell(), driverId);
+                }
+                // Dentro do compute: removeFromCell pode descartar o conjunto da célula
+                // ao esvaziá-lo, e um add fora do lock cairia num conjunto órfão.
+                driversByCell.compute(cell, (key, driverIds) -> {
+                    Set<Long> ids = driverIds != null ? driverIds : ConcurrentHashMap.newKeySet();
+                    ids.add(driverId);
+                    return ids;
+                });
+            }
+            return new IndexedDriver(cell, location);
+        });
+    }
+
+    public void replace(LocalizacaoResponse location) {
+        remove(location.getDriverId());
+        update(location);
+    }
+
+    public void remove(Long driverId) {
+        drivers.computeIfPresent(driverId, (id, current) -> {
+            removeFromCell(current.cell(), id);
+            return null;
+        });
+    }
+
+    public List<LocalizacaoResponse> findWithin(double minLat, double minLng, double maxLat, double maxLng) {
+        List<LocalizacaoResponse> result = new ArrayList<>();
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        if (GeoGrid.cellCount(minLat, minLng, maxLat, maxLng, cellSize) > drivers.size()) {
+            for (IndexedDriver driver : drivers.values()) {
+                collectIfInside(driver.location(), minLat, minLng, maxLat, maxLng, cutoff, result);
+            }
+            return result;
+        }
+        for (long cell : GeoGrid.cellsCovering(minLat, minLng, maxLat, maxLng, cellSize)) {
+            Set<Long> driverIds = driversByCell.get(cell);
+            if (driverIds == null) {
+                continue;
+            }
+            for (Long driverId : driverIds) {
+                IndexedDriver driver = drivers.get(driverId);
+                if (driver != null) {
+                    collectIfInside(driver.location(), minLat, minLng, maxLat, maxLng, cutoff, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Os {@code k} motoristas mais próximos do ponto dentro de {@code radiusKm},
+     * ordenados pela distância haversine. A busca percorre anéis de células a
+     * partir da célula do ponto e para assim que nenhum anel seguinte pode
+     * conter um motorista mais próximo que os já encontrados.
+     */
+    public List<NearbyDriver> findNearest(double latitude, double longitude, double radiusKm, int k) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        PriorityQueue<NearbyDriver> nearest = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(NearbyDriver::distanceKm).reversed());
+        double radiusDegrees = radiusKm / GeoGrid.KM_PER_DEGREE;
+        double cellKm = cellSize * GeoGrid.KM_PER_DEGREE
+                * Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + radiusDegrees)));
+        long maxRing = (long) Math.ceil(radiusKm / cellKm) + 1;
+
+        if ((2 * maxRing + 1) * (2 * maxRing + 1) > drivers.size()) {
+            for (IndexedDriver driver : drivers.values()) {
+                offer(nearest, driver.location(), latitude, longitude, radiusKm, k, cutoff);
+            }
+        } else {
+            int row = GeoGrid.row(latitude, cellSize);
+            int column = GeoGrid.column(longitude, cellSize);
+            for (int ring = 0; ring <= maxRing; ring++) {
+                if (nearest.size() == k && nearest.peek().distanceKm() <= (ring - 1) * cellKm) {
+                    break;
+                }
+                GeoGrid.forEachCellInRing(row, column, ring, cell -> {
+                    Set<Long> driverIds = driversByCell.get(cell);
+                    if (driverIds == null) {
+                        return;
+                    }
+                    for (Long driverId : driverIds) {
+                        IndexedDriver driver = drivers.get(driverId);
+                        if (driver != null) {
+                            offer(nearest, driver.location(), latitude, longitude, radiusKm, k, cutoff);
+                        }
+                    }
+                });
+            }
+        }
+
+        List<NearbyDriver> result = new ArrayList<>(nearest);
+        result.sort(Comparator.comparingDouble(NearbyDriver::distanceKm));
+        return result;
+    }
+
+    public int size() {
+        return drivers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${rastreamento.spatial.sweep-interval-ms:60000}")
+    public void evictStale() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        drivers.forEach((driverId, driver) -> {
+            if (isStale(driver.location(), cutoff)) {
+                drivers.computeIfPresent(driverId, (id, current) -> {
+                    if (!isStale(current.location(), cutoff)) {
+                        return current;
+                    }
+                    removeFromCell(current.cell(), id);
+                    return null;
+                });
+            }
+        });
+    }
+
+    private void removeFromCell(long cell, Long driverId) {
+        driversByCell.computeIfPresent(cell, (key, driverIds) -> {
+            driverIds.remove(driverId);
+            return driverIds.isEmpty() ? null : driverIds;
+        });
+    }
+
+    private static boolean isStale(LocalizacaoResponse location, LocalDateTime cutoff) {
+        return location.getTimestamp() != null && location.getTimestamp().isBefore(cutoff);
+    }
+
+    private static void collectIfInside(LocalizacaoResponse location, double minLat, double minLng,
+                                        double maxLat, double maxLng, LocalDateTime cutoff,
+                                        List<LocalizacaoResponse> result) {
+        double lat = location.getLatitude();
+        double lng = location.getLongitude();
+        if (lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng && !isStale(location, cutoff)) {
+            result.add(location);
+        }
+    }
+
+    private static void offer(PriorityQueue<NearbyDriver> nearest, LocalizacaoResponse location,
+                              double latitude, double longitude, double radiusKm, int k, LocalDateTime cutoff) {
+        if (isStale(location, cutoff)) {
+            return;
+        }
+        double distanceKm = GeoGrid.haversineKm(latitude, longitude, location.getLatitude(), location.getLongitude());
+        if (distanceKm > radiusKm) {
+            return;
+        }
+        if (nearest.size() < k) {
+            nearest.add(new NearbyDriver(location, distanceKm));
+        } else if (distanceKm < nearest.peek().distanceKm()) {
+            nearest.poll();
+            nearest.add(new NearbyDriver(location, distanceKm));
+        }
+    }
+
+    public record NearbyDriver(LocalizacaoResponse location, double distanceKm) {}
+
+    private record IndexedDriver(long cell, LocalizacaoResponse location) {}
+}
@@ -0,0 +1,76 @@
+package com.entregas.rastreamento.service;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Funções da grade geográfica usada pelos índices espaciais. Uma célula é
+ * identificada por um {@code long} com o índice da linha (latitude) nos 32 bits
+ * altos e o da coluna (longitude) nos 32 bits baixos.
+ */
+final class GeoGrid {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+
+    private GeoGrid() {}
+
+    static int row(double latitude, double cellSize) {
+        return (int) Math.floor((latitude + 90.0) / cellSize);
+    }
+
+    static int column(double longitude, double cellSize) {
+        return (int) Math.floor((longitude + 180.0) / cellSize);
+    }
+
+    static long cell(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    static long cellOf(double latitude, double longitude, double cellSize) {
+        return cell(row(latitude, cellSize), column(longitude, cellSize));
+    }
+
+    static long cellCount(double minLat, double minLng, double maxLat, double maxLng, double cellSize) {
+        long rows = row(maxLat, cellSize) - row(minLat, cellSize) + 1L;
+        long columns = column(maxLng, cellSize) - column(minLng, cellSize) + 1L;
+        return rows * columns;
+    }
+
+    static long[] cellsCovering(double minLat, double minLng, double maxLat, double maxLng, double cellSize) {
+        int minRow = row(minLat, cellSize);
+        int maxRow = row(maxLat, cellSize);
+        int minColumn = column(minLng, cellSize);
+        int maxColumn = column(maxLng, cellSize);
+        long[] cells = new long[(maxRow - minRow + 1) * (maxColumn - minColumn + 1)];
+        int i = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                cells[i++] = cell(row, column);
+            }
+        }
+        return cells;
+    }
+
+    static void forEachCellInRing(int centerRow, int centerColumn, int ring, LongConsumer action) {
+        if (ring == 0) {
+            action.accept(cell(centerRow, centerColumn));
+            return;
+        }
+        for (int column = centerColumn - ring; column <= centerColumn + ring; column++) {
+            action.accept(cell(centerRow - ring, column));
+            action.accept(cell(centerRow + ring, column));
+        }
+        for (int row = centerRow - ring + 1; row <= centerRow + ring - 1; row++) {
+            action.accept(cell(row, centerColumn - ring));
+            action.accept(cell(row, centerColumn + ring));
+        }
+    }
+
+    static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
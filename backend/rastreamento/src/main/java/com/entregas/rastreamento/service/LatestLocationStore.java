@@ -0,0 +1,75 @@
+package com.entregas.rastreamento.service;
+
+import com.entregas.rastreamento.dto.LocalizacaoResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Última posição conhecida por motorista e por pedido, mantida em memória para
+ * que os endpoints /latest não precisem consultar a tabela de localizações.
+ * As posições por motorista também alimentam o {@link DriverSpatialIndex}.
+ */
+@Component
+public class LatestLocationStore {
+
+    @Autowired
+    private DriverSpatialIndex driverSpatialIndex;
+
+    private final Map<Long, LocalizacaoResponse> byDriverId = new ConcurrentHashMap<>();
+    private final Map<Long, LocalizacaoResponse> byPedidoId = new ConcurrentHashMap<>();
+
+    public Optional<LocalizacaoResponse> findByDriverId(Long driverId) {
+        return Optional.ofNullable(byDriverId.get(driverId));
+    }
+
+    public Optional<LocalizacaoResponse> findByPedidoId(Long pedidoId) {
+        return Optional.ofNullable(byPedidoId.get(pedidoId));
+    }
+
+    public void update(LocalizacaoResponse location) {
+        if (location.getDriverId() != null) {
+            byDriverId.merge(location.getDriverId(), location, LatestLocationStore::newest);
+            driverSpatialIndex.update(location);
+        }
+        if (location.getPedidoId() != null) {
+            byPedidoId.merge(location.getPedidoId(), location, LatestLocationStore::newest);
+        }
+    }
+
+    public void replaceDriver(Long driverId, Optional<LocalizacaoResponse> location) {
+        if (location.isPresent()) {
+            byDriverId.put(driverId, location.get());
+            driverSpatialIndex.replace(location.get());
+        } else {
+            byDriverId.remove(driverId);
+            driverSpatialIndex.remove(driverId);
+        }
+    }
+
+    public void replacePedido(Long pedidoId, Optional<LocalizacaoResponse> location) {
+        if (location.isPresent()) {
+            byPedidoId.put(pedidoId, location.get());
+        } else {
+            byPedidoId.remove(pedidoId);
+        }
+    }
+
+    public int driverCount() {
+        return byDriverId.size();
+    }
+
+    public int pedidoCount() {
+        return byPedidoId.size();
+    }
+
+    private static LocalizacaoResponse newest(LocalizacaoResponse current, LocalizacaoResponse candidate) {
+        if (current.getTimestamp() == null || candidate.getTimestamp() == null) {
+            return candidate;
+        }
+        return candidate.getTimestamp().isBefore(current.getTimestamp()) ? current : candidate;
+    }
+}
@@ -0,0 +1,134 @@
+package com.entregas.rastreamento.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Valida tokens localmente (assinatura HS256 e expiração) com a mesma chave do
+ * serviço de autenticação, sem chamada de rede. Os claims já verificados ficam
+ * em cache até a expiração do token. Quando a checagem de revogação está
+ * habilitada, o serviço de autenticação é consultado no máximo uma vez por
+ * intervalo para cada token.
+ */
+@Service
+public class LocalTokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalTokenVerifier.class);
+    private static final Map<String, Object> INVALID = Map.of("valid", false);
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> claimsCache;
+    private final TokenValidationService tokenValidationService;
+    private final boolean revocationCheckEnabled;
+    private final long revocationCheckIntervalNanos;
+
+    public LocalTokenVerifier(@Value("${jwt.secret}") String secret,
+                              @Value("${auth.validation.claims-cache.max-size:10000}") long maxSize,
+                              @Value("${auth.validation.claims-cache.ttl:1h}") Duration ttl,
+                              @Value("${auth.validation.revocation-check.enabled:false}") boolean revocationCheckEnabled,
+                              @Value("${auth.validation.revocation-check.interval:5m}") Duration revocationCheckInterval,
+                              TokenValidationService tokenValidationService,
+                              MeterRegistry meterRegistry) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry<VerifiedToken>(ttl.toNanos(), VerifiedToken::expiresAtMillis))
+                .recordStats()
+                .build();
+        this.tokenValidationService = tokenValidationService;
+        this.revocationCheckEnabled = revocationCheckEnabled;
+        this.revocationCheckIntervalNanos = revocationCheckInterval.toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "rastreamento.jwt-claims");
+    }
+
+    public Map<String, Object> getTokenInfo(String token) {
+        VerifiedToken verified = claimsCache.getIfPresent(token);
+        if (verified == null) {
+            verified = verify(token);
+            if (verified == null) {
+                return INVALID;
+            }
+            claimsCache.put(token, verified);
+        }
+        if (verified.expiresAtMillis() <= System.currentTimeMillis()) {
+            claimsCache.invalidate(token);
+            return INVALID;
+        }
+        if (revocationCheckEnabled && isRevoked(token, verified)) {
+            claimsCache.invalidate(token);
+            return INVALID;
+        }
+        return verified.tokenInfo();
+    }
+
+    private VerifiedToken verify(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Long userId = claims.get("userId", Long.class);
+            String userType = claims.get("userType", String.class);
+            if (userId == null || userType == null || "refresh".equals(claims.get("type", String.class))) {
+                logger.debug("Token rejected: missing access token claims");
+                return null;
+            }
+            Map<String, Object> tokenInfo = Map.of("valid", true, "userId", userId, "userType", userType);
+            return new VerifiedToken(tokenInfo, claims.getExpiration().getTime(), System.nanoTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token rejected by local verification: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isRevoked(String token, VerifiedToken verified) {
+        long now = System.nanoTime();
+        if (now - verified.lastRemoteCheckNanos < revocationCheckIntervalNanos) {
+            return false;
+        }
+        Map<String, Object> remote = tokenValidationService.validateRemote(token);
+        if (Boolean.TRUE.equals(remote.get("valid"))) {
+            verified.lastRemoteCheckNanos = now;
+            return false;
+        }
+        if (Boolean.TRUE.equals(remote.get("error"))) {
+            logger.warn("Revocation check unavailable, keeping locally verified token");
+            return false;
+        }
+        return true;
+    }
+
+    private static final class VerifiedToken {
+
+        private final Map<String, Object> tokenInfo;
+        private final long expiresAtMillis;
+        private volatile long lastRemoteCheckNanos;
+
+        VerifiedToken(Map<String, Object> tokenInfo, long expiresAtMillis, long verifiedAtNanos) {
+            this.tokenInfo = tokenInfo;
+            this.expiresAtMillis = expiresAtMillis;
+            this.lastRemoteCheckNanos = verifiedAtNanos;
+        }
+
+        Map<String, Object> tokenInfo() {
+            return tokenInfo;
+        }
+
+        long expiresAtMillis() {
+            return expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.entregas.rastreamento.service;
+
+import com.entregas.rastreamento.repository.LocalizacaoPartitionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mantém as partições diárias de {@code localizacoes}: cria as partições dos
+ * próximos {@code premake-days} dias e remove (ou arquiva) as que ficaram
+ * inteiramente fora da janela de {@code retention-days}. Roda na inicialização
+ * e diariamente; as operações são idempotentes, então várias instâncias podem
+ * executar o mesmo ciclo.
+ */
+@Service
+public class LocalizacaoPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalizacaoPartitionService.class);
+
+    @Autowired
+    private LocalizacaoPartitionRepository partitionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rastreamento.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rastreamento.retention.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${rastreamento.retention.premake-days:3}")
+    private int premakeDays;
+
+    @Value("${rastreamento.retention.archive:false}")
+    private boolean archive;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${rastreamento.retention.cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        createUpcomingPartitions(today);
+        applyRetention(today.minusDays(retentionDays));
+    }
+
+    private void createUpcomingPartitions(LocalDate today) {
+        List<LocalDate> existing = existingDays();
+        for (LocalDate day = today; !day.isAfter(today.plusDays(premakeDays)); day = day.plusDays(1)) {
+            if (existing.contains(day)) {
+                continue;
+            }
+            try {
+                partitionRepository.createDailyPartition(day);
+                meterRegistry.counter("rastreamento.partitions.created").increment();
+                logger.info("Created location partition {}", LocalizacaoPartitionRepository.partitionName(day));
+            } catch (Exception e) {
+                // Falha típica: a partição padrão já tem linhas desse dia.
+                logger.warn("Could not create location partition for {}: {}", day, e.getMessage());
+            }
+        }
+    }
+
+    private void applyRetention(LocalDate firstRetainedDay) {
+        for (LocalDate day : existingDays()) {
+            if (!day.isBefore(firstRetainedDay)) {
+                continue;
+            }
+            try {
+                if (archive) {
+                    partitionRepository.archivePartition(day);
+                    meterRegistry.counter("rastreamento.partitions.archived").increment();
+                } else {
+                    partitionRepository.dropPartition(day);
+                    meterRegistry.counter("rastreamento.partitions.dropped").increment();
+                }
+                logger.info("{} location partition {}", archive ? "Archived" : "Dropped",
+                        LocalizacaoPartitionRepository.partitionName(day));
+            } catch (Exception e) {
+                logger.warn("Could not remove location partition for {}: {}", day, e.getMessage());
+            }
+        }
+        int deleted = partitionRepository.deleteFromDefaultPartitionBefore(firstRetainedDay.atStartOfDay());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired locations from the default partition", deleted);
+        }
+    }
+
+    private List<LocalDate> existingDays() {
+        return partitionRepository.findPartitions().stream()
+                .map(LocalizacaoPartitionRepository::partitionDay)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+}
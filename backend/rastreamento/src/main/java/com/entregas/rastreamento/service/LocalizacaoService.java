@@ -2,75 +2,219 @@ package com.entregas.rastreamento.service;
 
 import com.entregas.rastreamento.dto.LocalizacaoResponse;
 import com.entregas.rastreamento.dto.LocalizacaoUpdateRequest;
+import com.entregas.rastreamento.dto.NearbyDriverResponse;
+import com.entregas.rastreamento.dto.TrailArchiveResponse;
+import com.entregas.rastreamento.dto.TrailPolylineResponse;
+import com.entregas.rastreamento.dto.ViewportRequest;
 import com.entregas.rastreamento.exception.LocationNotFoundException;
+import com.entregas.rastreamento.exception.RastreamentoException;
 import com.entregas.rastreamento.model.Localizacao;
+import com.entregas.rastreamento.repository.LocalizacaoBatchRepository;
+import com.entregas.rastreamento.repository.LocalizacaoIdAllocator;
 import com.entregas.rastreamento.repository.LocalizacaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class LocalizacaoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LocalizacaoService.class);
+
     @Autowired
     private LocalizacaoRepository localizacaoRepository;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private LatestLocationStore latestLocationStore;
+
+    @Autowired
+    private LocalizacaoWriteBehindQueue writeBehindQueue;
+
+    @Autowired
+    private LocalizacaoIdAllocator idAllocator;
+
+    @Autowired
+    private LocalizacaoBatchRepository batchRepository;
+
+    @Autowired
+    private LocationBroadcaster locationBroadcaster;
+
+    @Autowired
+    private DriverSpatialIndex driverSpatialIndex;
+
+    @Autowired
+    private TrailArchiveService trailArchiveService;
+
+    @Value("${rastreamento.nearby.max-radius-km:50}")
+    private double nearbyMaxRadiusKm;
+
+    @Value("${rastreamento.nearby.max-results:100}")
+    private int nearbyMaxResults;
 
     public LocalizacaoResponse updateLocation(LocalizacaoUpdateRequest request) {
-        Localizacao localizacao = new Localizacao();
-        localizacao.setDriverId(request.getDriverId());
-        localizacao.setLatitude(request.getLatitude());
-        localizacao.setLongitude(request.getLongitude());
-        localizacao.setAltitude(request.getAltitude());
-        localizacao.setSpeed(request.getSpeed());
-        localizacao.setHeading(request.getHeading());
-        localizacao.setAccuracy(request.getAccuracy());
-        localizacao.setPedidoId(request.getPedidoId());
-        localizacao.setTimestamp(LocalDateTime.now());
-        localizacao.setIsActive(true);
+        Localizacao localizacao = toEntity(request, LocalDateTime.now());
+
+        if (writeBehindQueue.isEnabled()) {
+            return updateLocationWriteBehind(localizacao);
+        }
 
         Localizacao savedLocalizacao = localizacaoRepository.save(localizacao);
         LocalizacaoResponse response = convertToResponse(savedLocalizacao);
+        latestLocationStore.update(response);
 
-        broadcastLocationUpdate(response);
+        locationBroadcaster.publish(response);
         return response;
     }
 
-    public LocalizacaoResponse getLatestLocationByDriverId(Long driverId) {
-        Optional<Localizacao> localizacao = localizacaoRepository.findLatestLocationByDriverId(driverId);
-        if (localizacao.isPresent()) {
-            return convertToResponse(localizacao.get());
+    private LocalizacaoResponse updateLocationWriteBehind(Localizacao localizacao) {
+        localizacao.setId(idAllocator.nextId());
+        localizacao.setCreatedAt(localizacao.getTimestamp());
+        localizacao.setUpdatedAt(localizacao.getTimestamp());
+        LocalizacaoResponse response = convertToResponse(localizacao);
+        latestLocationStore.update(response);
+
+        locationBroadcaster.publish(response);
+        writeBehindQueue.enqueue(localizacao);
+        return response;
+    }
+
+    public List<LocalizacaoResponse> updateLocations(List<LocalizacaoUpdateRequest> requests) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Localizacao> localizacoes = new ArrayList<>(requests.size());
+        for (LocalizacaoUpdateRequest request : requests) {
+            LocalDateTime timestamp = request.getTimestamp();
+            if (timestamp == null || timestamp.isAfter(now)) {
+                timestamp = now;
+            }
+            Localizacao localizacao = toEntity(request, timestamp);
+            localizacao.setId(idAllocator.nextId());
+            localizacao.setCreatedAt(now);
+            localizacao.setUpdatedAt(now);
+            localizacoes.add(localizacao);
         }
-        throw new LocationNotFoundException("No location found for driver ID: " + driverId);
+        batchRepository.insertAll(localizacoes);
+
+        List<LocalizacaoResponse> responses = localizacoes.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        responses.forEach(latestLocationStore::update);
+
+        // Lotes reenviados depois de um período offline podem ser mais antigos que
+        // a posição ao vivo já publicada: só vai para os assinantes o que a store aceitou.
+        BinaryOperator<LocalizacaoResponse> newest = BinaryOperator.maxBy(Comparator.comparing(LocalizacaoResponse::getTimestamp));
+        Collection<LocalizacaoResponse> newestPerDriver = responses.stream()
+                .collect(Collectors.toMap(LocalizacaoResponse::getDriverId, Function.identity(), newest))
+                .values().stream()
+                .filter(response -> isCurrent(response, latestLocationStore.findByDriverId(response.getDriverId())))
+                .collect(Collectors.toList());
+        newestPerDriver.forEach(locationBroadcaster::publish);
+        Set<LocalizacaoResponse> published = Collections.newSetFromMap(new IdentityHashMap<>());
+        published.addAll(newestPerDriver);
+        responses.stream()
+                .filter(response -> response.getPedidoId() != null)
+                .collect(Collectors.toMap(LocalizacaoResponse::getPedidoId, Function.identity(), newest))
+                .values().stream()
+                .filter(response -> !published.contains(response))
+                .filter(response -> isCurrent(response, latestLocationStore.findByPedidoId(response.getPedidoId())))
+                .forEach(locationBroadcaster::publishPedido);
+        return responses;
+    }
+
+    private static boolean isCurrent(LocalizacaoResponse response, Optional<LocalizacaoResponse> stored) {
+        return stored.map(current -> !response.getTimestamp().isBefore(current.getTimestamp())).orElse(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLatestLocations() {
+        localizacaoRepository.findLatestActiveLocationPerDriver()
+                .forEach(localizacao -> latestLocationStore.update(convertToResponse(localizacao)));
+        localizacaoRepository.findLatestActiveLocationPerPedido()
+                .forEach(localizacao -> latestLocationStore.update(convertToResponse(localizacao)));
+        logger.info("Loaded latest locations for {} drivers and {} pedidos",
+                latestLocationStore.driverCount(), latestLocationStore.pedidoCount());
+    }
+
+    public LocalizacaoResponse getLatestLocationByDriverId(Long driverId) {
+        return latestLocationStore.findByDriverId(driverId)
+                .orElseThrow(() -> new LocationNotFoundException("No location found for driver ID: " + driverId));
     }
 
     public LocalizacaoResponse getLatestLocationByPedidoId(Long pedidoId) {
-        Optional<Localizacao> localizacao = localizacaoRepository.findLatestLocationByPedidoId(pedidoId);
-        if (localizacao.isPresent()) {
-            return convertToResponse(localizacao.get());
+        return latestLocationStore.findByPedidoId(pedidoId)
+                .orElseThrow(() -> new LocationNotFoundException("No location found for pedido ID: " + pedidoId));
+    }
+
+    public List<LocalizacaoResponse> getLocationsInViewport(ViewportRequest viewport) {
+        if (!viewport.isValid()) {
+            throw RastreamentoException.coordenadasInvalidas();
         }
-        throw new LocationNotFoundException("No location found for pedido ID: " + pedidoId);
+        return driverSpatialIndex.findWithin(viewport.getMinLatitude(), viewport.getMinLongitude(),
+                viewport.getMaxLatitude(), viewport.getMaxLongitude());
     }
 
-    public List<LocalizacaoResponse> getLocationsByDriverId(Long driverId) {
-        List<Localizacao> localizacoes = localizacaoRepository.findByDriverIdOrderByTimestampDesc(driverId);
-        return localizacoes.stream()
-                .map(this::convertToResponse)
+    public List<NearbyDriverResponse> getNearbyDrivers(double latitude, double longitude, double radiusKm, int k) {
+        if (latitude < -90.0 || latitude > 90.0 || longitude < -180.0 || longitude > 180.0) {
+            throw RastreamentoException.coordenadasInvalidas();
+        }
+        if (!(radiusKm > 0.0) || radiusKm > nearbyMaxRadiusKm) {
+            throw RastreamentoException.raioInvalido();
+        }
+        int limit = Math.max(1, Math.min(k, nearbyMaxResults));
+        return driverSpatialIndex.findNearest(latitude, longitude, radiusKm, limit).stream()
+                .map(nearby -> new NearbyDriverResponse(nearby.location().getDriverId(), nearby.distanceKm(), nearby.location()))
                 .collect(Collectors.toList());
     }
 
-    public List<LocalizacaoResponse> getLocationsByPedidoId(Long pedidoId) {
+    public List<LocalizacaoResponse> getLocationsByDriverId(Long driverId, Double tolerance, Integer maxPoints) {
+        List<Localizacao> localizacoes = localizacaoRepository.findByDriverIdOrderByTimestampDesc(driverId);
+        return toResponses(simplify(localizacoes, tolerance, maxPoints));
+    }
+
+    public List<LocalizacaoResponse> getLocationsByPedidoId(Long pedidoId, Double tolerance, Integer maxPoints) {
         List<Localizacao> localizacoes = localizacaoRepository.findByPedidoIdOrderByTimestampDesc(pedidoId);
-        return localizacoes.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return toResponses(simplify(withArchived(pedidoId, localizacoes, archived -> true), tolerance, maxPoints));
+    }
+
+    public TrailPolylineResponse getDriverPolyline(Long driverId, Double tolerance, Integer maxPoints) {
+        return toPolyline(localizacaoRepository.findByDriverIdOrderByTimestampDesc(driverId), tolerance, maxPoints);
+    }
+
+    public TrailPolylineResponse getPedidoPolyline(Long pedidoId, Double tolerance, Integer maxPoints) {
+        List<Localizacao> localizacoes = localizacaoRepository.findByPedidoIdOrderByTimestampDesc(pedidoId);
+        return toPolyline(withArchived(pedidoId, localizacoes, archived -> true), tolerance, maxPoints);
+    }
+
+    /**
+     * Entrega as localizações do motorista uma a uma, direto do cursor do banco,
+     * sem montar a lista. O consumidor é chamado dentro da transação.
+     */
+    @Transactional(readOnly = true)
+    public void streamLocationsByDriverId(Long driverId, Consumer<LocalizacaoResponse> consumer) {
+        try (Stream<LocalizacaoResponse> localizacoes = localizacaoRepository.streamByDriverId(driverId)) {
+            localizacoes.forEach(consumer);
+        }
     }
 
     public List<LocalizacaoResponse> getLocationsByDriverIdAndTimeRange(Long driverId, LocalDateTime startTime) {
@@ -82,9 +226,7 @@ public class LocalizacaoService {
 
     public List<LocalizacaoResponse> getLocationsByPedidoIdAndTimeRange(Long pedidoId, LocalDateTime startTime) {
         List<Localizacao> localizacoes = localizacaoRepository.findLocationsByPedidoIdAndTimeRange(pedidoId, startTime);
-        return localizacoes.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return toResponses(withArchived(pedidoId, localizacoes, archived -> !archived.getTimestamp().isBefore(startTime)));
     }
 
     public List<LocalizacaoResponse> getActiveLocationsSince(LocalDateTime startTime) {
@@ -94,8 +236,96 @@ public class LocalizacaoService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public void streamActiveLocationsSince(LocalDateTime startTime, Consumer<LocalizacaoResponse> consumer) {
+        try (Stream<LocalizacaoResponse> localizacoes = localizacaoRepository.streamActiveSince(startTime)) {
+            localizacoes.forEach(consumer);
+        }
+    }
+
     public List<LocalizacaoResponse> getLocationsByDriverAndPedido(Long driverId, Long pedidoId) {
         List<Localizacao> localizacoes = localizacaoRepository.findLocationsByDriverAndPedido(driverId, pedidoId);
+        return toResponses(withArchived(pedidoId, localizacoes,
+                archived -> driverId.equals(archived.getDriverId()) && archived.getIsActive()));
+    }
+
+    public TrailArchiveResponse archiveTrail(Long pedidoId) {
+        return trailArchiveService.archive(pedidoId)
+                .orElseThrow(() -> new LocationNotFoundException("No location found for pedido ID: " + pedidoId));
+    }
+
+    /**
+     * Junta as localizações ainda em {@code localizacoes} com as da trilha
+     * arquivada do pedido, em ordem decrescente de timestamp.
+     */
+    private List<Localizacao> withArchived(Long pedidoId, List<Localizacao> localizacoes, Predicate<Localizacao> archivedFilter) {
+        List<Localizacao> archived = trailArchiveService.findArchivedLocations(pedidoId);
+        if (archived.isEmpty()) {
+            return localizacoes;
+        }
+        return Stream.concat(localizacoes.stream(), archived.stream().filter(archivedFilter))
+                .sorted(Comparator.comparing(Localizacao::getTimestamp).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Simplifica a trilha (em ordem decrescente de timestamp) antes da conversão,
+     * para que os pontos descartados não virem {@link LocalizacaoResponse}.
+     */
+    private List<Localizacao> simplify(List<Localizacao> trail, Double tolerance, Integer maxPoints) {
+        if (tolerance == null && maxPoints == null) {
+            return trail;
+        }
+        int[] kept = simplifiedIndices(latitudes(trail), longitudes(trail), tolerance, maxPoints);
+        List<Localizacao> simplified = new ArrayList<>(kept.length);
+        for (int index : kept) {
+            simplified.add(trail.get(index));
+        }
+        return simplified;
+    }
+
+    /**
+     * Polyline da trilha em ordem cronológica, do primeiro ao último ponto.
+     */
+    private TrailPolylineResponse toPolyline(List<Localizacao> trail, Double tolerance, Integer maxPoints) {
+        List<Localizacao> chronological = new ArrayList<>(trail);
+        Collections.reverse(chronological);
+        double[] latitudes = latitudes(chronological);
+        double[] longitudes = longitudes(chronological);
+        int[] kept = simplifiedIndices(latitudes, longitudes, tolerance, maxPoints);
+
+        TrailPolylineResponse response = new TrailPolylineResponse();
+        response.setPolyline(PolylineEncoder.encode(latitudes, longitudes, kept));
+        response.setPointCount(kept.length);
+        response.setSourcePointCount(chronological.size());
+        if (!chronological.isEmpty()) {
+            response.setStartTime(chronological.get(0).getTimestamp());
+            response.setEndTime(chronological.get(chronological.size() - 1).getTimestamp());
+        }
+        return response;
+    }
+
+    private int[] simplifiedIndices(double[] latitudes, double[] longitudes, Double tolerance, Integer maxPoints) {
+        if ((tolerance != null && !(tolerance > 0.0)) || (maxPoints != null && maxPoints < 2)) {
+            throw RastreamentoException.simplificacaoInvalida();
+        }
+        if (tolerance == null && maxPoints == null) {
+            int[] all = new int[latitudes.length];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        return TrailSimplifier.simplify(latitudes, longitudes, tolerance, maxPoints);
+    }
+
+    private static double[] latitudes(List<Localizacao> trail) {
+        return trail.stream().mapToDouble(Localizacao::getLatitude).toArray();
+    }
+
+    private static double[] longitudes(List<Localizacao> trail) {
+        return trail.stream().mapToDouble(Localizacao::getLongitude).toArray();
+    }
+
+    private List<LocalizacaoResponse> toResponses(List<Localizacao> localizacoes) {
         return localizacoes.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
@@ -106,6 +336,36 @@ public class LocalizacaoService {
                 .orElseThrow(() -> new LocationNotFoundException("Location not found with ID: " + id));
         localizacao.setIsActive(false);
         localizacaoRepository.save(localizacao);
+        refreshLatestLocation(localizacao);
+    }
+
+    private void refreshLatestLocation(Localizacao deactivated) {
+        Long driverId = deactivated.getDriverId();
+        if (latestLocationStore.findByDriverId(driverId).filter(l -> deactivated.getId().equals(l.getId())).isPresent()) {
+            latestLocationStore.replaceDriver(driverId,
+                    localizacaoRepository.findLatestLocationByDriverId(driverId).map(this::convertToResponse));
+        }
+        Long pedidoId = deactivated.getPedidoId();
+        if (pedidoId != null
+                && latestLocationStore.findByPedidoId(pedidoId).filter(l -> deactivated.getId().equals(l.getId())).isPresent()) {
+            latestLocationStore.replacePedido(pedidoId,
+                    localizacaoRepository.findLatestLocationByPedidoId(pedidoId).map(this::convertToResponse));
+        }
+    }
+
+    private Localizacao toEntity(LocalizacaoUpdateRequest request, LocalDateTime timestamp) {
+        Localizacao localizacao = new Localizacao();
+        localizacao.setDriverId(request.getDriverId());
+        localizacao.setLatitude(request.getLatitude());
+        localizacao.setLongitude(request.getLongitude());
+        localizacao.setAltitude(request.getAltitude());
+        localizacao.setSpeed(request.getSpeed());
+        localizacao.setHeading(request.getHeading());
+        localizacao.setAccuracy(request.getAccuracy());
+        localizacao.setPedidoId(request.getPedidoId());
+        localizacao.setTimestamp(timestamp);
+        localizacao.setIsActive(true);
+        return localizacao;
     }
 
     private LocalizacaoResponse convertToResponse(Localizacao localizacao) {
@@ -125,15 +385,4 @@ public class LocalizacaoService {
         response.setUpdatedAt(localizacao.getUpdatedAt());
         return response;
     }
-
-    private void broadcastLocationUpdate(LocalizacaoResponse response) {
-        System.out.println("Broadcastando localização: " + response);
-        messagingTemplate.convertAndSend("/topic/location-updates", response);
-        if (response.getDriverId() != null) {
-            messagingTemplate.convertAndSend("/topic/driver/" + response.getDriverId() + "/location", response);
-        }
-        if (response.getPedidoId() != null) {
-            messagingTemplate.convertAndSend("/topic/pedido/" + response.getPedidoId() + "/location", response);
-        }
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,191 @@
+package com.entregas.rastreamento.service;
+
+import com.entregas.rastreamento.model.Localizacao;
+import com.entregas.rastreamento.repository.LocalizacaoBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fila limitada de pings aguardando persistência. Uma thread dedicada agrupa os
+ * pings e grava em lote quando o lote atinge {@code batch-size} ou quando o ping
+ * mais antigo espera {@code flush-interval-ms}. Com a fila cheia o ping é gravado
+ * de forma síncrona pela thread da requisição, o que limita a memória e devolve a
+ * pressão para os clientes.
+ */
+@Component
+public class LocalizacaoWriteBehindQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalizacaoWriteBehindQueue.class);
+
+    @Autowired
+    private LocalizacaoBatchRepository batchRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rastreamento.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${rastreamento.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${rastreamento.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${rastreamento.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${rastreamento.write-behind.max-attempts:3}")
+    private int maxAttempts;
+
+    private BlockingQueue<Localizacao> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Counter enqueuedCounter;
+    private Counter rejectedCounter;
+    private Counter persistedCounter;
+    private Counter failedCounter;
+    private Timer flushTimer;
+    private DistributionSummary batchSizeSummary;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("rastreamento.write_behind.queue.size", queue, BlockingQueue::size)
+                .description("Pings aguardando persistência")
+                .register(meterRegistry);
+        Gauge.builder("rastreamento.write_behind.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Capacidade restante da fila de persistência")
+                .register(meterRegistry);
+        enqueuedCounter = meterRegistry.counter("rastreamento.write_behind.enqueued");
+        rejectedCounter = meterRegistry.counter("rastreamento.write_behind.rejected");
+        persistedCounter = meterRegistry.counter("rastreamento.write_behind.persisted");
+        failedCounter = meterRegistry.counter("rastreamento.write_behind.failed");
+        flushTimer = meterRegistry.timer("rastreamento.write_behind.flush");
+        batchSizeSummary = meterRegistry.summary("rastreamento.write_behind.batch.size");
+
+        running = true;
+        writer = new Thread(this::drainLoop, "localizacao-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Write-behind persistence enabled (capacity={}, batchSize={}, flushIntervalMs={})",
+                queueCapacity, batchSize, flushIntervalMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void enqueue(Localizacao localizacao) {
+        if (queue.offer(localizacao)) {
+            enqueuedCounter.increment();
+            return;
+        }
+        rejectedCounter.increment();
+        logger.warn("Write-behind queue full, persisting location for driver {} synchronously", localizacao.getDriverId());
+        flush(List.of(localizacao));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            List<Localizacao> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            flush(remaining);
+        }
+    }
+
+    private void drainLoop() {
+        List<Localizacao> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Localizacao first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remainingNanos <= 0) {
+                        break;
+                    }
+                    Localizacao next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private void flush(List<Localizacao> batch) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                flushTimer.record(() -> batchRepository.insertAll(batch));
+                persistedCounter.increment(batch.size());
+                batchSizeSummary.record(batch.size());
+                return;
+            } catch (Exception e) {
+                logger.warn("Failed to persist {} locations (attempt {}/{}): {}", batch.size(), attempt, maxAttempts, e.getMessage());
+            }
+            if (attempt < maxAttempts && !sleepBeforeRetry(attempt)) {
+                break;
+            }
+        }
+        failedCounter.increment(batch.size());
+        logger.error("Dropping {} locations after failed persistence attempts", batch.size());
+    }
+
+    private boolean sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(100L * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
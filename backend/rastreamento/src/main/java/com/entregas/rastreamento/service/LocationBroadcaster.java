@@ -0,0 +1,198 @@
+package com.entregas.rastreamento.service;
+
+import com.entregas.rastreamento.dto.LocalizacaoResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica as localizações nos tópicos STOMP. Cada atualização é serializada uma
+ * única vez e o mesmo payload é enviado a todos os tópicos de destino. Dentro
+ * de cada intervalo ({@code coalesce-interval-ms}) apenas a posição mais
+ * recente de cada motorista e a mais recente de cada pedido são enviadas, então
+ * assinantes lentos não acumulam posições obsoletas e um motorista que troca de
+ * pedido no meio do intervalo não deixa o pedido anterior sem a última posição.
+ * As posições também são roteadas para os viewports que contêm a posição nova
+ * ou a última posição enviada do motorista, para que o cliente saiba quando o
+ * motorista sai da área.
+ */
+@Component
+public class LocationBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationBroadcaster.class);
+
+    static final String LOCATION_UPDATES_TOPIC = "/topic/location-updates";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ViewportRegistry viewportRegistry;
+
+    @Value("${rastreamento.broadcast.coalesce-interval-ms:250}")
+    private long coalesceIntervalMs;
+
+    private final Map<Long, LocalizacaoResponse> pending = new ConcurrentHashMap<>();
+    private final Map<Long, LocalizacaoResponse> pendingByPedido = new ConcurrentHashMap<>();
+    private final Map<Long, double[]> lastSentPositions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private Counter publishedCounter;
+    private Counter coalescedCounter;
+    private Counter sentCounter;
+
+    @PostConstruct
+    public void start() {
+        publishedCounter = meterRegistry.counter("rastreamento.broadcast.published");
+        coalescedCounter = meterRegistry.counter("rastreamento.broadcast.coalesced");
+        sentCounter = meterRegistry.counter("rastreamento.broadcast.sent");
+        if (coalesceIntervalMs > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "location-broadcaster");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::flush, coalesceIntervalMs, coalesceIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            flush();
+        }
+    }
+
+    public void publish(LocalizacaoResponse location) {
+        publishedCounter.increment();
+        if (scheduler == null) {
+            send(location, destinations(location));
+            return;
+        }
+        pending.merge(location.getDriverId(), location, this::newest);
+        if (location.getPedidoId() != null) {
+            pendingByPedido.merge(location.getPedidoId(), location, this::newest);
+        }
+    }
+
+    /**
+     * Publica apenas no tópico do pedido: posição mais recente de um pedido que
+     * não é a mais recente do motorista (lote com fixes de mais de um pedido).
+     */
+    public void publishPedido(LocalizacaoResponse location) {
+        publishedCounter.increment();
+        if (scheduler == null) {
+            send(location, List.of(pedidoDestination(location)));
+            return;
+        }
+        pendingByPedido.merge(location.getPedidoId(), location, this::newest);
+    }
+
+    private LocalizacaoResponse newest(LocalizacaoResponse current, LocalizacaoResponse candidate) {
+        coalescedCounter.increment();
+        return candidate.getTimestamp().isBefore(current.getTimestamp()) ? current : candidate;
+    }
+
+    private void flush() {
+        try {
+            for (Long driverId : pending.keySet()) {
+                LocalizacaoResponse location = pending.remove(driverId);
+                if (location == null) {
+                    continue;
+                }
+                List<String> destinations = destinations(location);
+                if (location.getPedidoId() != null && pendingByPedido.remove(location.getPedidoId(), location)) {
+                    destinations.add(pedidoDestination(location));
+                }
+                send(location, destinations);
+            }
+            for (Long pedidoId : pendingByPedido.keySet()) {
+                LocalizacaoResponse location = pendingByPedido.remove(pedidoId);
+                if (location != null) {
+                    send(location, List.of(pedidoDestination(location)));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error broadcasting location updates: {}", e.getMessage(), e);
+        }
+    }
+
+    private void send(LocalizacaoResponse location, List<String> destinations) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(location);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize location for driver {}: {}", location.getDriverId(), e.getMessage());
+            return;
+        }
+        Message<byte[]> message = MessageBuilder.withPayload(payload)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+        for (String destination : destinations) {
+            messagingTemplate.send(destination, message);
+            sentCounter.increment();
+        }
+        logger.trace("Broadcast location {} for driver {}", location.getId(), location.getDriverId());
+    }
+
+    // Tópicos do motorista; o do pedido entra à parte, pela vaga do pedido.
+    private List<String> destinations(LocalizacaoResponse location) {
+        List<String> destinations = new ArrayList<>(3);
+        destinations.add(LOCATION_UPDATES_TOPIC);
+        destinations.add("/topic/driver/" + location.getDriverId() + "/location");
+        if (scheduler == null && location.getPedidoId() != null) {
+            destinations.add(pedidoDestination(location));
+        }
+        addViewportDestinations(location, destinations);
+        return destinations;
+    }
+
+    private static String pedidoDestination(LocalizacaoResponse location) {
+        return "/topic/pedido/" + location.getPedidoId() + "/location";
+    }
+
+    private void addViewportDestinations(LocalizacaoResponse location, List<String> destinations) {
+        double[] position = {location.getLatitude(), location.getLongitude()};
+        double[] previous = lastSentPositions.put(location.getDriverId(), position);
+        if (viewportRegistry.size() == 0) {
+            return;
+        }
+        List<String> viewportIds = viewportRegistry.viewportsContaining(position[0], position[1]);
+        viewportIds.forEach(viewportId -> destinations.add(ViewportRegistry.destination(viewportId)));
+        if (previous != null && (previous[0] != position[0] || previous[1] != position[1])) {
+            for (String viewportId : viewportRegistry.viewportsContaining(previous[0], previous[1])) {
+                if (!viewportIds.contains(viewportId)) {
+                    destinations.add(ViewportRegistry.destination(viewportId));
+                }
+            }
+        }
+    }
+}
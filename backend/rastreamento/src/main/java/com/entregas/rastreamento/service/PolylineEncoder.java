@@ -0,0 +1,36 @@
+package com.entregas.rastreamento.service;
+
+/**
+ * Codificação de polylines no formato do Google Maps (precisão de 1e-5 grau):
+ * cada coordenada é a diferença para o ponto anterior, em blocos de 5 bits.
+ */
+final class PolylineEncoder {
+
+    private static final double SCALE = 1e5;
+
+    private PolylineEncoder() {}
+
+    static String encode(double[] latitudes, double[] longitudes, int[] indices) {
+        StringBuilder polyline = new StringBuilder(indices.length * 8);
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (int index : indices) {
+            long latitude = Math.round(latitudes[index] * SCALE);
+            long longitude = Math.round(longitudes[index] * SCALE);
+            appendValue(polyline, latitude - previousLatitude);
+            appendValue(polyline, longitude - previousLongitude);
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+        }
+        return polyline.toString();
+    }
+
+    private static void appendValue(StringBuilder polyline, long delta) {
+        long value = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (value >= 0x20) {
+            polyline.append((char) ((0x20 | (value & 0x1f)) + 63));
+            value >>= 5;
+        }
+        polyline.append((char) (value + 63));
+    }
+}
@@ -0,0 +1,40 @@
+package com.entregas.rastreamento.service;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Expira entradas de cache de token no menor entre o TTL configurado e o
+ * instante de expiração do próprio token.
+ */
+class TokenExpiry<V> implements Expiry<String, V> {
+
+    private final long ttlNanos;
+    private final ToLongFunction<V> expiresAtMillis;
+
+    TokenExpiry(long ttlNanos, ToLongFunction<V> expiresAtMillis) {
+        this.ttlNanos = ttlNanos;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    @Override
+    public long expireAfterCreate(String token, V value, long currentTime) {
+        long untilExpiration = expiresAtMillis.applyAsLong(value) - System.currentTimeMillis();
+        if (untilExpiration <= 0) {
+            return 0;
+        }
+        return Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(untilExpiration));
+    }
+
+    @Override
+    public long expireAfterUpdate(String token, V value, long currentTime, long currentDuration) {
+        return expireAfterCreate(token, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String token, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
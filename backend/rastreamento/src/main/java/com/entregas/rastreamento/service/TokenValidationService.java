@@ -2,6 +2,10 @@ package com.entregas.rastreamento.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +14,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,46 +30,58 @@ public class TokenValidationService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final Cache<String, CachedToken> tokenCache;
 
-    public TokenValidationService() {
+    public TokenValidationService(@Value("${auth.token-cache.max-size:10000}") long maxSize,
+                                  @Value("${auth.token-cache.ttl:5m}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
         this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
+        this.tokenCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry<CachedToken>(ttl.toNanos(), CachedToken::expiresAtMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenCache, "rastreamento.tokens");
     }
 
     public boolean validateToken(String token) {
-        try {
-            String url = authServiceUrl + "/api/auth/validate";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(token);
-            
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, 
-                HttpMethod.POST, 
-                entity, 
-                String.class
-            );
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode responseBody = objectMapper.readTree(response.getBody());
-                return responseBody.get("valid").asBoolean();
-            }
-            
-            return false;
-            
-        } catch (HttpClientErrorException e) {
-            logger.warn("Token validation failed: {}", e.getMessage());
-            return false;
-        } catch (Exception e) {
-            logger.error("Error validating token: {}", e.getMessage(), e);
-            return false;
-        }
+        return (Boolean) getTokenInfo(token).get("valid");
     }
 
+    /**
+     * Tokens válidos ficam em cache até o menor entre o TTL configurado e o
+     * claim {@code exp}, evitando a chamada ao serviço de autenticação a cada
+     * requisição. Respostas inválidas não são cacheadas.
+     */
     public Map<String, Object> getTokenInfo(String token) {
+        CachedToken cached = tokenCache.getIfPresent(token);
+        if (cached != null) {
+            return cached.tokenInfo();
+        }
+        Map<String, Object> tokenInfo = fetchTokenInfo(token);
+        if (Boolean.TRUE.equals(tokenInfo.get("valid"))) {
+            tokenCache.put(token, new CachedToken(tokenInfo, extractExpirationMillis(token)));
+        }
+        return tokenInfo;
+    }
+
+    /**
+     * Consulta o serviço de autenticação sem passar pelo cache e atualiza a
+     * entrada do token com a resposta: válido volta para o cache, inválido
+     * (revogado) sai dele. Em erro de comunicação o cache fica como está.
+     */
+    public Map<String, Object> validateRemote(String token) {
+        Map<String, Object> tokenInfo = fetchTokenInfo(token);
+        if (Boolean.TRUE.equals(tokenInfo.get("valid"))) {
+            tokenCache.put(token, new CachedToken(tokenInfo, extractExpirationMillis(token)));
+        } else if (!Boolean.TRUE.equals(tokenInfo.get("error"))) {
+            tokenCache.invalidate(token);
+        }
+        return tokenInfo;
+    }
+
+    private Map<String, Object> fetchTokenInfo(String token) {
         try {
             String url = authServiceUrl + "/api/auth/validate";
             
@@ -85,7 +104,7 @@ public class TokenValidationService {
                 tokenInfo.put("valid", responseBody.get("valid").asBoolean());
                 tokenInfo.put("userId", responseBody.get("userId").asLong());
                 tokenInfo.put("userType", responseBody.get("userType").asText());
-                return tokenInfo;
+                return Map.copyOf(tokenInfo);
             }
             
             return Map.of("valid", false);
@@ -95,7 +114,21 @@ public class TokenValidationService {
             return Map.of("valid", false);
         } catch (Exception e) {
             logger.error("Error getting token info: {}", e.getMessage(), e);
-            return Map.of("valid", false);
+            return Map.of("valid", false, "error", true);
         }
     }
-} 
\ No newline at end of file
+
+    private long extractExpirationMillis(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+            JsonNode exp = objectMapper.readTree(new String(payload, StandardCharsets.UTF_8)).get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000 : Long.MAX_VALUE;
+        } catch (Exception e) {
+            logger.debug("Could not read exp claim from token: {}", e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private record CachedToken(Map<String, Object> tokenInfo, long expiresAtMillis) {}
+}
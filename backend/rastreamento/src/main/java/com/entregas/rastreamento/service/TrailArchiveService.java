@@ -0,0 +1,123 @@
+package com.entregas.rastreamento.service;
+
+import com.entregas.rastreamento.dto.TrailArchiveResponse;
+import com.entregas.rastreamento.model.Localizacao;
+import com.entregas.rastreamento.repository.LocalizacaoRepository;
+import com.entregas.rastreamento.repository.TrailArchiveRepository;
+import com.entregas.rastreamento.repository.TrailArchiveRepository.ArchivedTrail;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Arquiva a trilha de um pedido finalizado: as localizações do pedido são
+ * compactadas em um único registro de {@code trilhas_arquivadas}
+ * ({@link TrailCodec}) e removidas de {@code localizacoes}. Pings que chegarem
+ * depois continuam na tabela e são incorporados no próximo arquivamento. Além
+ * da chamada explícita, uma varredura periódica arquiva trilhas sem pings há
+ * {@code idle-after} (olhando só os pings de {@code idle-window} antes desse
+ * corte), antes que a retenção remova as partições.
+ */
+@Service
+public class TrailArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrailArchiveService.class);
+
+    @Autowired
+    private TrailArchiveRepository archiveRepository;
+
+    @Autowired
+    private LocalizacaoRepository localizacaoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rastreamento.archive.enabled:true}")
+    private boolean sweepEnabled;
+
+    @Value("${rastreamento.archive.idle-after:6h}")
+    private Duration idleAfter;
+
+    @Value("${rastreamento.archive.idle-window:24h}")
+    private Duration idleWindow;
+
+    @Value("${rastreamento.archive.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    public Optional<TrailArchiveResponse> archive(Long pedidoId) {
+        return transactionTemplate.execute(status -> archiveInTransaction(pedidoId));
+    }
+
+    /**
+     * Localizações arquivadas do pedido, em ordem crescente de timestamp.
+     */
+    public List<Localizacao> findArchivedLocations(Long pedidoId) {
+        return archiveRepository.findByPedidoId(pedidoId)
+                .map(trail -> TrailCodec.decode(trail.data()))
+                .orElse(List.of());
+    }
+
+    @Scheduled(fixedDelayString = "${rastreamento.archive.sweep-interval-ms:3600000}",
+            initialDelayString = "${rastreamento.archive.sweep-interval-ms:3600000}")
+    public void archiveIdleTrails() {
+        if (!sweepEnabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(idleAfter);
+        List<Long> pedidoIds = archiveRepository.findPedidosIdleSince(cutoff.minus(idleWindow), cutoff, sweepBatchSize);
+        for (Long pedidoId : pedidoIds) {
+            try {
+                archive(pedidoId);
+            } catch (Exception e) {
+                logger.warn("Failed to archive trail for pedido {}: {}", pedidoId, e.getMessage());
+            }
+        }
+        if (!pedidoIds.isEmpty()) {
+            logger.info("Archived {} idle pedido trails", pedidoIds.size());
+        }
+    }
+
+    private Optional<TrailArchiveResponse> archiveInTransaction(Long pedidoId) {
+        archiveRepository.lockPedido(pedidoId);
+        Optional<ArchivedTrail> existing = archiveRepository.findByPedidoId(pedidoId);
+        List<Localizacao> pending = localizacaoRepository.findByPedidoIdOrderByTimestampDesc(pedidoId);
+        if (pending.isEmpty()) {
+            return existing.map(TrailArchiveService::toResponse);
+        }
+
+        List<Localizacao> points = new ArrayList<>(pending);
+        existing.ifPresent(trail -> points.addAll(TrailCodec.decode(trail.data())));
+        byte[] data = TrailCodec.encode(pedidoId, points);
+        LocalDateTime first = points.stream().map(Localizacao::getTimestamp).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime last = points.stream().map(Localizacao::getTimestamp).max(LocalDateTime::compareTo).orElseThrow();
+        ArchivedTrail trail = new ArchivedTrail(pedidoId, TrailCodec.VERSION, points.size(), first, last, data, LocalDateTime.now());
+
+        archiveRepository.save(trail);
+        archiveRepository.deleteArchivedLocations(pedidoId, pending.stream().map(Localizacao::getId).toList());
+
+        meterRegistry.counter("rastreamento.archive.trails").increment();
+        meterRegistry.counter("rastreamento.archive.points").increment(pending.size());
+        meterRegistry.summary("rastreamento.archive.bytes").record(data.length);
+        logger.debug("Archived {} locations for pedido {} ({} points, {} bytes)", pending.size(), pedidoId, points.size(), data.length);
+        return Optional.of(toResponse(trail));
+    }
+
+    private static TrailArchiveResponse toResponse(ArchivedTrail trail) {
+        return new TrailArchiveResponse(trail.pedidoId(), trail.pointCount(), trail.data().length,
+                trail.firstTimestamp(), trail.lastTimestamp(), trail.archivedAt());
+    }
+}
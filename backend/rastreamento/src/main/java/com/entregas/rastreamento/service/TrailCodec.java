@@ -0,0 +1,287 @@
+package com.entregas.rastreamento.service;
+
+import com.entregas.rastreamento.model.Localizacao;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Formato binário colunar da trilha arquivada de um pedido. Os pontos são
+ * ordenados por timestamp e cada campo é gravado como uma coluna de varints:
+ * timestamps, ids, motorista e coordenadas como diferença para o ponto
+ * anterior; velocidade, direção, altitude e precisão em ponto fixo. Campos
+ * opcionais só entram na coluna quando presentes (bit correspondente em
+ * {@code flags}).
+ *
+ * <pre>
+ * versão (1 byte) | quantidade | pedidoId
+ * timestamp Δms | id Δ | driverId Δ | latitude Δ1e-7° | longitude Δ1e-7° | flags (1 byte)
+ * altitude Δ0,1 m | speed 0,01 m/s | heading 0,1° | accuracy 0,1 m
+ * createdAt - timestamp (ms) | updatedAt - createdAt (ms)
+ * </pre>
+ *
+ * A conversão é com perda controlada: timestamps em milissegundos,
+ * coordenadas com 1e-7 grau (~1 cm) e os demais campos na escala acima.
+ */
+final class TrailCodec {
+
+    static final byte VERSION = 1;
+
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final double SPEED_SCALE = 100.0;
+    private static final double TENTHS = 10.0;
+
+    private static final int HAS_ALTITUDE = 1;
+    private static final int HAS_SPEED = 1 << 1;
+    private static final int HAS_HEADING = 1 << 2;
+    private static final int HAS_ACCURACY = 1 << 3;
+    private static final int ACTIVE = 1 << 4;
+    private static final int HAS_CREATED_AT = 1 << 5;
+    private static final int HAS_UPDATED_AT = 1 << 6;
+
+    private TrailCodec() {
+    }
+
+    static byte[] encode(long pedidoId, List<Localizacao> localizacoes) {
+        List<Localizacao> points = new ArrayList<>(localizacoes);
+        points.sort(Comparator.comparing(Localizacao::getTimestamp).thenComparing(Localizacao::getId));
+        int count = points.size();
+
+        Writer out = new Writer(count * 20 + 16);
+        out.write(VERSION);
+        out.writeVarint(count);
+        out.writeVarint(pedidoId);
+
+        writeDeltas(out, points, l -> toMillis(l.getTimestamp()));
+        writeDeltas(out, points, Localizacao::getId);
+        writeDeltas(out, points, Localizacao::getDriverId);
+        writeDeltas(out, points, l -> fixed(l.getLatitude(), COORDINATE_SCALE));
+        writeDeltas(out, points, l -> fixed(l.getLongitude(), COORDINATE_SCALE));
+        for (Localizacao point : points) {
+            out.write(flags(point));
+        }
+
+        long previousAltitude = 0;
+        for (Localizacao point : points) {
+            if (point.getAltitude() != null) {
+                long altitude = fixed(point.getAltitude(), TENTHS);
+                out.writeSignedVarint(altitude - previousAltitude);
+                previousAltitude = altitude;
+            }
+        }
+        for (Localizacao point : points) {
+            if (point.getSpeed() != null) {
+                out.writeSignedVarint(fixed(point.getSpeed(), SPEED_SCALE));
+            }
+        }
+        for (Localizacao point : points) {
+            if (point.getHeading() != null) {
+                out.writeSignedVarint(fixed(point.getHeading(), TENTHS));
+            }
+        }
+        for (Localizacao point : points) {
+            if (point.getAccuracy() != null) {
+                out.writeSignedVarint(fixed(point.getAccuracy(), TENTHS));
+            }
+        }
+        for (Localizacao point : points) {
+            if (point.getCreatedAt() != null) {
+                out.writeSignedVarint(toMillis(point.getCreatedAt()) - toMillis(point.getTimestamp()));
+            }
+        }
+        for (Localizacao point : points) {
+            if (point.getUpdatedAt() != null) {
+                LocalDateTime base = point.getCreatedAt() != null ? point.getCreatedAt() : point.getTimestamp();
+                out.writeSignedVarint(toMillis(point.getUpdatedAt()) - toMillis(base));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodifica a trilha em ordem crescente de timestamp.
+     */
+    static List<Localizacao> decode(byte[] data) {
+        Reader in = new Reader(data);
+        byte version = in.read();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported trail archive version " + version);
+        }
+        int count = (int) in.readVarint();
+        long pedidoId = in.readVarint();
+
+        long[] timestamps = readDeltas(in, count);
+        long[] ids = readDeltas(in, count);
+        long[] driverIds = readDeltas(in, count);
+        long[] latitudes = readDeltas(in, count);
+        long[] longitudes = readDeltas(in, count);
+        int[] flags = new int[count];
+        for (int i = 0; i < count; i++) {
+            flags[i] = in.read() & 0xFF;
+        }
+
+        List<Localizacao> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Localizacao point = new Localizacao();
+            point.setId(ids[i]);
+            point.setPedidoId(pedidoId);
+            point.setDriverId(driverIds[i]);
+            point.setTimestamp(fromMillis(timestamps[i]));
+            point.setLatitude(latitudes[i] / COORDINATE_SCALE);
+            point.setLongitude(longitudes[i] / COORDINATE_SCALE);
+            point.setIsActive((flags[i] & ACTIVE) != 0);
+            points.add(point);
+        }
+
+        long altitude = 0;
+        for (int i = 0; i < count; i++) {
+            if ((flags[i] & HAS_ALTITUDE) != 0) {
+                altitude += in.readSignedVarint();
+                points.get(i).setAltitude(altitude / TENTHS);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if ((flags[i] & HAS_SPEED) != 0) {
+                points.get(i).setSpeed(in.readSignedVarint() / SPEED_SCALE);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if ((flags[i] & HAS_HEADING) != 0) {
+                points.get(i).setHeading(in.readSignedVarint() / TENTHS);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if ((flags[i] & HAS_ACCURACY) != 0) {
+                points.get(i).setAccuracy(in.readSignedVarint() / TENTHS);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if ((flags[i] & HAS_CREATED_AT) != 0) {
+                points.get(i).setCreatedAt(fromMillis(timestamps[i] + in.readSignedVarint()));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if ((flags[i] & HAS_UPDATED_AT) != 0) {
+                Localizacao point = points.get(i);
+                LocalDateTime base = point.getCreatedAt() != null ? point.getCreatedAt() : point.getTimestamp();
+                point.setUpdatedAt(fromMillis(toMillis(base) + in.readSignedVarint()));
+            }
+        }
+        return points;
+    }
+
+    private static int flags(Localizacao point) {
+        int flags = 0;
+        if (point.getAltitude() != null) {
+            flags |= HAS_ALTITUDE;
+        }
+        if (point.getSpeed() != null) {
+            flags |= HAS_SPEED;
+        }
+        if (point.getHeading() != null) {
+            flags |= HAS_HEADING;
+        }
+        if (point.getAccuracy() != null) {
+            flags |= HAS_ACCURACY;
+        }
+        if (Boolean.TRUE.equals(point.getIsActive())) {
+            flags |= ACTIVE;
+        }
+        if (point.getCreatedAt() != null) {
+            flags |= HAS_CREATED_AT;
+        }
+        if (point.getUpdatedAt() != null) {
+            flags |= HAS_UPDATED_AT;
+        }
+        return flags;
+    }
+
+    private static void writeDeltas(Writer out, List<Localizacao> points, ToLongFunction<Localizacao> column) {
+        long previous = 0;
+        for (Localizacao point : points) {
+            long value = column.applyAsLong(point);
+            out.writeSignedVarint(value - previous);
+            previous = value;
+        }
+    }
+
+    private static long[] readDeltas(Reader in, int count) {
+        long[] values = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += in.readSignedVarint();
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static long fixed(double value, double scale) {
+        return Math.round(value * scale);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer(int size) {
+            super(size);
+        }
+
+        void writeSignedVarint(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        byte read() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated trail archive");
+            }
+            return data[position++];
+        }
+
+        long readSignedVarint() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in trail archive");
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.entregas.rastreamento.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.PriorityQueue;
+
+/**
+ * Simplificação de trilhas sobre arrays de coordenadas, devolvendo os índices
+ * dos pontos mantidos (sempre incluindo o primeiro e o último). As distâncias
+ * usam uma projeção equiretangular em metros centrada na latitude média da
+ * trilha, suficiente para a extensão de uma trilha urbana.
+ */
+final class TrailSimplifier {
+
+    private static final double METERS_PER_DEGREE = GeoGrid.KM_PER_DEGREE * 1000.0;
+
+    private TrailSimplifier() {}
+
+    /**
+     * Aplica Douglas-Peucker com {@code toleranceMeters} (se informado) e, se ainda
+     * sobrarem mais de {@code maxPoints} pontos, Visvalingam-Whyatt até esse limite.
+     */
+    static int[] simplify(double[] latitudes, double[] longitudes, Double toleranceMeters, Integer maxPoints) {
+        int n = latitudes.length;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        project(latitudes, longitudes, x, y);
+
+        boolean[] keep = new boolean[n];
+        int kept;
+        if (toleranceMeters != null && n > 2) {
+            kept = douglasPeucker(x, y, toleranceMeters, keep);
+        } else {
+            Arrays.fill(keep, true);
+            kept = n;
+        }
+        if (maxPoints != null && kept > maxPoints && kept > 2) {
+            kept = visvalingam(x, y, keep, kept, Math.max(2, maxPoints));
+        }
+
+        int[] indices = new int[kept];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (keep[i]) {
+                indices[j++] = i;
+            }
+        }
+        return indices;
+    }
+
+    private static void project(double[] latitudes, double[] longitudes, double[] x, double[] y) {
+        double latitudeSum = 0;
+        for (double latitude : latitudes) {
+            latitudeSum += latitude;
+        }
+        double cosLatitude = latitudes.length > 0 ? Math.cos(Math.toRadians(latitudeSum / latitudes.length)) : 1.0;
+        for (int i = 0; i < latitudes.length; i++) {
+            x[i] = longitudes[i] * cosLatitude * METERS_PER_DEGREE;
+            y[i] = latitudes[i] * METERS_PER_DEGREE;
+        }
+    }
+
+    private static int douglasPeucker(double[] x, double[] y, double tolerance, boolean[] keep) {
+        int n = x.length;
+        double toleranceSquared = tolerance * tolerance;
+        keep[0] = true;
+        keep[n - 1] = true;
+        int kept = 2;
+
+        Deque<int[]> segments = new ArrayDeque<>();
+        segments.push(new int[] {0, n - 1});
+        while (!segments.isEmpty()) {
+            int[] segment = segments.pop();
+            int first = segment[0];
+            int last = segment[1];
+            double maxDistance = 0;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distance = segmentDistanceSquared(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0 && maxDistance > toleranceSquared) {
+                keep[farthest] = true;
+                kept++;
+                segments.push(new int[] {first, farthest});
+                segments.push(new int[] {farthest, last});
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Remove repetidamente o ponto cujo triângulo com os vizinhos tem a menor
+     * área, atualizando os vizinhos. Entradas desatualizadas da fila são
+     * descartadas ao sair.
+     */
+    private static int visvalingam(double[] x, double[] y, boolean[] keep, int kept, int target) {
+        int n = x.length;
+        int[] previous = new int[n];
+        int[] next = new int[n];
+        int last = -1;
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                previous[i] = last;
+                if (last >= 0) {
+                    next[last] = i;
+                }
+                last = i;
+            }
+        }
+        next[last] = -1;
+
+        double[] areas = new double[n];
+        PriorityQueue<double[]> queue = new PriorityQueue<>(kept, (a, b) -> Double.compare(a[0], b[0]));
+        for (int i = 0; i < n; i++) {
+            if (keep[i] && previous[i] >= 0 && next[i] >= 0) {
+                areas[i] = triangleArea(x, y, previous[i], i, next[i]);
+                queue.add(new double[] {areas[i], i});
+            }
+        }
+
+        double minimumArea = 0;
+        while (kept > target && !queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int i = (int) entry[1];
+            if (!keep[i] || entry[0] != areas[i]) {
+                continue;
+            }
+            // A área efetiva nunca diminui, para que um ponto não seja removido
+            // antes de outro já considerado menos relevante.
+            minimumArea = Math.max(minimumArea, entry[0]);
+            keep[i] = false;
+            kept--;
+            int before = previous[i];
+            int after = next[i];
+            next[before] = after;
+            previous[after] = before;
+            if (previous[before] >= 0) {
+                areas[before] = Math.max(minimumArea, triangleArea(x, y, previous[before], before, after));
+                queue.add(new double[] {areas[before], before});
+            }
+            if (next[after] >= 0) {
+                areas[after] = Math.max(minimumArea, triangleArea(x, y, before, after, next[after]));
+                queue.add(new double[] {areas[after], after});
+            }
+        }
+        return kept;
+    }
+
+    private static double triangleArea(double[] x, double[] y, int a, int b, int c) {
+        return Math.abs((x[b] - x[a]) * (y[c] - y[a]) - (x[c] - x[a]) * (y[b] - y[a])) / 2.0;
+    }
+
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+        double ex = px - (ax + t * dx);
+        double ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+}
@@ -0,0 +1,200 @@
+package com.entregas.rastreamento.service;
+
+import com.entregas.rastreamento.dto.ViewportRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Viewports registrados pelas sessões WebSocket. Cada viewport é indexado nas
+ * células da grade que ele cobre, então descobrir quem deve receber uma posição
+ * custa uma consulta de célula e não uma varredura de todos os viewports.
+ * Viewports maiores que {@code max-cells} células ficam em uma lista à parte,
+ * verificada a cada posição.
+ */
+@Component
+public class ViewportRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewportRegistry.class);
+
+    static final String VIEWPORT_TOPIC_PREFIX = "/topic/viewport/";
+    private static final Pattern VIEWPORT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final double cellSize;
+    private final int maxCells;
+    private final int maxPerSession;
+    private final Map<String, Viewport> viewports = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Viewport>> viewportsByCell = new ConcurrentHashMap<>();
+    private final Set<Viewport> largeViewports = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<String>> viewportsBySession = new ConcurrentHashMap<>();
+
+    public ViewportRegistry(@Value("${rastreamento.viewport.cell-size-degrees:0.05}") double cellSize,
+                            @Value("${rastreamento.viewport.max-cells:400}") int maxCells,
+                            @Value("${rastreamento.viewport.max-per-session:10}") int maxPerSession,
+                            MeterRegistry meterRegistry) {
+        this.cellSize = cellSize;
+        this.maxCells = maxCells;
+        this.maxPerSession = maxPerSession;
+        Gauge.builder("rastreamento.viewport.active", viewports, Map::size)
+                .description("Viewports registrados")
+                .register(meterRegistry);
+    }
+
+    public static String destination(String viewportId) {
+        return VIEWPORT_TOPIC_PREFIX + viewportId;
+    }
+
+    /**
+     * Registra (ou substitui) o viewport {@code viewportId} da sessão. As
+     * atualizações passam a ser publicadas em {@code /topic/viewport/{viewportId}}.
+     */
+    public boolean register(String sessionId, String viewportId, ViewportRequest area) {
+        if (!VIEWPORT_ID.matcher(viewportId).matches() || !area.isValid()) {
+            logger.warn("Ignoring invalid viewport {} from session {}", viewportId, sessionId);
+            return false;
+        }
+        // Verifica o limite e reserva o id num único compute, para frames
+        // simultâneos da mesma sessão não passarem do limite.
+        boolean[] added = new boolean[1];
+        Set<String> sessionViewports = viewportsBySession.compute(sessionId, (key, ids) -> {
+            Set<String> current = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            if (!current.contains(viewportId) && current.size() < maxPerSession) {
+                current.add(viewportId);
+                added[0] = true;
+            }
+            return current;
+        });
+        if (!added[0] && !sessionViewports.contains(viewportId)) {
+            logger.warn("Session {} reached the limit of {} viewports", sessionId, maxPerSession);
+            return false;
+        }
+        Viewport viewport = new Viewport(viewportId, sessionId, area.getMinLatitude(), area.getMinLongitude(),
+                area.getMaxLatitude(), area.getMaxLongitude());
+        Viewport[] previous = new Viewport[1];
+        Viewport current = viewports.compute(viewportId, (id, existing) -> {
+            if (existing != null && !existing.sessionId().equals(sessionId)) {
+                return existing;
+            }
+            previous[0] = existing;
+            return viewport;
+        });
+        if (current != viewport) {
+            if (added[0]) {
+                viewportsBySession.computeIfPresent(sessionId, (key, ids) -> {
+                    ids.remove(viewportId);
+                    return ids;
+                });
+            }
+            logger.warn("Viewport {} already belongs to another session", viewportId);
+            return false;
+        }
+        if (previous[0] != null) {
+            unindex(previous[0]);
+        }
+        index(viewport);
+        return true;
+    }
+
+    public void unregister(String sessionId, String viewportId) {
+        Set<String> sessionViewports = viewportsBySession.get(sessionId);
+        if (sessionViewports != null && sessionViewports.remove(viewportId)) {
+            remove(viewportId);
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        Set<String> sessionViewports = viewportsBySession.remove(event.getSessionId());
+        if (sessionViewports != null) {
+            sessionViewports.forEach(this::remove);
+        }
+    }
+
+    /**
+     * Ids dos viewports que contêm o ponto.
+     */
+    public List<String> viewportsContaining(double latitude, double longitude) {
+        if (viewports.isEmpty()) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>();
+        Set<Viewport> candidates = viewportsByCell.get(GeoGrid.cellOf(latitude, longitude, cellSize));
+        if (candidates != null) {
+            for (Viewport viewport : candidates) {
+                if (viewport.contains(latitude, longitude)) {
+                    result.add(viewport.id());
+                }
+            }
+        }
+        for (Viewport viewport : largeViewports) {
+            if (viewport.contains(latitude, longitude)) {
+                result.add(viewport.id());
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return viewports.size();
+    }
+
+    private void remove(String viewportId) {
+        Viewport viewport = viewports.get(viewportId);
+        if (viewport != null && viewports.remove(viewportId, viewport)) {
+            unindex(viewport);
+        }
+    }
+
+    private void index(Viewport viewport) {
+        if (viewport.cellCount(cellSize) > maxCells) {
+            largeViewports.add(viewport);
+            return;
+        }
+        for (long cell : viewport.cells(cellSize)) {
+            viewportsByCell.compute(cell, (key, cellViewports) -> {
+                Set<Viewport> current = cellViewports != null ? cellViewports : ConcurrentHashMap.newKeySet();
+                current.add(viewport);
+                return current;
+            });
+        }
+    }
+
+    private void unindex(Viewport viewport) {
+        if (largeViewports.remove(viewport)) {
+            return;
+        }
+        for (long cell : viewport.cells(cellSize)) {
+            viewportsByCell.computeIfPresent(cell, (key, cellViewports) -> {
+                cellViewports.remove(viewport);
+                return cellViewports.isEmpty() ? null : cellViewports;
+            });
+        }
+    }
+
+    private record Viewport(String id, String sessionId, double minLat, double minLng, double maxLat, double maxLng) {
+
+        boolean contains(double latitude, double longitude) {
+            return latitude >= minLat && latitude <= maxLat && longitude >= minLng && longitude <= maxLng;
+        }
+
+        long cellCount(double cellSize) {
+            return GeoGrid.cellCount(minLat, minLng, maxLat, maxLng, cellSize);
+        }
+
+        long[] cells(double cellSize) {
+            return GeoGrid.cellsCovering(minLat, minLng, maxLat, maxLng, cellSize);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Incremento igual ao allocationSize de Localizacao (otimizador pooled-lo).
+CREATE SEQUENCE localizacoes_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE localizacoes (
+    id          BIGINT PRIMARY KEY,
+    driver_id   BIGINT NOT NULL,
+    latitude    DOUBLE PRECISION NOT NULL,
+    longitude   DOUBLE PRECISION NOT NULL,
+    altitude    DOUBLE PRECISION,
+    speed       DOUBLE PRECISION,
+    heading     DOUBLE PRECISION,
+    accuracy    DOUBLE PRECISION,
+    timestamp   TIMESTAMP(6) NOT NULL,
+    pedido_id   BIGINT,
+    is_active   BOOLEAN NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
@@ -0,0 +1,10 @@
+-- Histórico e última posição por motorista ou pedido: igualdade + ORDER BY timestamp DESC.
+-- is_active fica fora da chave porque quase todas as linhas são ativas; o filtro é
+-- aplicado ao percorrer o índice.
+CREATE INDEX idx_localizacoes_driver_timestamp ON localizacoes (driver_id, timestamp DESC);
+CREATE INDEX idx_localizacoes_pedido_timestamp ON localizacoes (pedido_id, timestamp DESC)
+    WHERE pedido_id IS NOT NULL;
+
+-- Localizações ativas desde um instante (findActiveLocationsSince).
+CREATE INDEX idx_localizacoes_active_timestamp ON localizacoes (timestamp DESC)
+    WHERE is_active;
@@ -0,0 +1,56 @@
+-- Particiona localizacoes por dia de timestamp. Consultas com intervalo de tempo
+-- só leem as partições do intervalo e a retenção remove partições inteiras
+-- (LocalizacaoPartitionService) em vez de apagar linhas.
+ALTER TABLE localizacoes RENAME TO localizacoes_legacy;
+ALTER INDEX idx_localizacoes_driver_timestamp RENAME TO idx_localizacoes_legacy_driver_timestamp;
+ALTER INDEX idx_localizacoes_pedido_timestamp RENAME TO idx_localizacoes_legacy_pedido_timestamp;
+ALTER INDEX idx_localizacoes_active_timestamp RENAME TO idx_localizacoes_legacy_active_timestamp;
+
+-- A chave primária de uma tabela particionada precisa incluir a coluna de partição.
+CREATE TABLE localizacoes (
+    id          BIGINT NOT NULL,
+    driver_id   BIGINT NOT NULL,
+    latitude    DOUBLE PRECISION NOT NULL,
+    longitude   DOUBLE PRECISION NOT NULL,
+    altitude    DOUBLE PRECISION,
+    speed       DOUBLE PRECISION,
+    heading     DOUBLE PRECISION,
+    accuracy    DOUBLE PRECISION,
+    timestamp   TIMESTAMP(6) NOT NULL,
+    pedido_id   BIGINT,
+    is_active   BOOLEAN NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Índices criados na tabela pai são replicados em cada partição.
+CREATE INDEX idx_localizacoes_driver_timestamp ON localizacoes (driver_id, timestamp DESC);
+CREATE INDEX idx_localizacoes_pedido_timestamp ON localizacoes (pedido_id, timestamp DESC)
+    WHERE pedido_id IS NOT NULL;
+CREATE INDEX idx_localizacoes_active_timestamp ON localizacoes (timestamp DESC)
+    WHERE is_active;
+
+-- Recebe pings fora das partições diárias existentes (relógio do aparelho
+-- adiantado ou lotes com timestamps muito antigos) para que o insert não falhe.
+CREATE TABLE localizacoes_default PARTITION OF localizacoes DEFAULT;
+
+-- Partições diárias para os dados existentes e os próximos dias; as seguintes
+-- são criadas pelo serviço.
+DO $$
+DECLARE
+    first_day DATE;
+    day DATE;
+BEGIN
+    SELECT COALESCE(MIN(timestamp)::date, CURRENT_DATE) INTO first_day FROM localizacoes_legacy;
+    day := LEAST(first_day, CURRENT_DATE);
+    WHILE day <= CURRENT_DATE + 3 LOOP
+        EXECUTE format('CREATE TABLE localizacoes_p%s PARTITION OF localizacoes FOR VALUES FROM (%L) TO (%L)',
+                       to_char(day, 'YYYYMMDD'), day, day + 1);
+        day := day + 1;
+    END LOOP;
+END $$;
+
+INSERT INTO localizacoes SELECT * FROM localizacoes_legacy;
+
+DROP TABLE localizacoes_legacy;
@@ -0,0 +1,14 @@
+-- Trilhas de pedidos finalizados, uma linha por pedido, no formato de TrailCodec.
+-- As localizações arquivadas saem de localizacoes.
+CREATE TABLE trilhas_arquivadas (
+    pedido_id        BIGINT PRIMARY KEY,
+    format_version   SMALLINT NOT NULL,
+    point_count      INTEGER NOT NULL,
+    first_timestamp  TIMESTAMP(6) NOT NULL,
+    last_timestamp   TIMESTAMP(6) NOT NULL,
+    data             BYTEA NOT NULL,
+    archived_at      TIMESTAMP(6) NOT NULL
+);
+
+-- O blob já é compacto: guardado fora da linha sem a compressão pglz do TOAST.
+ALTER TABLE trilhas_arquivadas ALTER COLUMN data SET STORAGE EXTERNAL;
@@ -0,0 +1,135 @@
+package com.entregas.rastreamento.service;
+
+import com.entregas.rastreamento.model.Localizacao;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrailCodecTest {
+
+    // Metade do passo de cada escala do formato, com folga para o arredondamento em double.
+    private static final double COORDINATE_TOLERANCE = 0.5e-7 + 1e-12;
+    private static final double SPEED_TOLERANCE = 0.005 + 1e-9;
+    private static final double TENTHS_TOLERANCE = 0.05 + 1e-9;
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 10, 14, 30, 15, 123_456_789);
+
+    @Test
+    void roundTripKeepsEveryFieldWithinPrecision() {
+        List<Localizacao> trail = List.of(
+                point(501L, 42L, START, -23.5505199, -46.6333094, 760.25, 12.345, 359.95, 4.85, true),
+                point(503L, 42L, START.plusSeconds(5), -23.5501234, -46.6329876, 762.4, 13.0, 10.04, 5.0, true),
+                point(502L, 41L, START.plusSeconds(10), -23.5512345, -46.6340001, 755.0, 0.0, 0.0, 3.26, false));
+
+        assertTrail(trail, TrailCodec.decode(TrailCodec.encode(9L, trail)), 9L);
+    }
+
+    @Test
+    void roundTripKeepsNegativeDeltas() {
+        // Ids, motorista, coordenadas e altitude diminuem de um ponto para o outro.
+        List<Localizacao> trail = List.of(
+                point(900L, 70L, START, 10.0000001, 20.0000001, 120.5, 8.5, 90.0, 2.0, true),
+                point(850L, 65L, START.plusNanos(250_000_000), -10.0000001, -20.0000001, -15.3, -0.01, -45.5, 1.5, true),
+                point(10L, 1L, START.plusSeconds(1), -89.9999999, -179.9999999, -430.1, 0.0, -359.9, 0.1, true));
+
+        assertTrail(trail, TrailCodec.decode(TrailCodec.encode(Long.MAX_VALUE, trail)), Long.MAX_VALUE);
+    }
+
+    @Test
+    void roundTripKeepsNullableFieldsEmpty() {
+        Localizacao withoutOptionals = point(11L, 3L, START.plusSeconds(2), 1.5, 2.5, null, null, null, null, null);
+        withoutOptionals.setCreatedAt(null);
+        withoutOptionals.setUpdatedAt(null);
+        Localizacao onlyUpdatedAt = point(12L, 3L, START.plusSeconds(4), 1.6, 2.6, null, 7.25, null, 3.5, false);
+        onlyUpdatedAt.setCreatedAt(null);
+        List<Localizacao> trail = List.of(
+                point(10L, 3L, START, 1.4, 2.4, 800.0, 5.5, 180.0, 6.0, true),
+                withoutOptionals,
+                onlyUpdatedAt);
+
+        List<Localizacao> decoded = TrailCodec.decode(TrailCodec.encode(5L, trail));
+
+        assertTrail(trail, decoded, 5L);
+        assertNull(decoded.get(1).getAltitude());
+        assertNull(decoded.get(1).getSpeed());
+        assertNull(decoded.get(1).getHeading());
+        assertNull(decoded.get(1).getAccuracy());
+        assertNull(decoded.get(1).getCreatedAt());
+        assertNull(decoded.get(1).getUpdatedAt());
+        assertEquals(false, decoded.get(1).getIsActive());
+    }
+
+    @Test
+    void roundTripKeepsSinglePointTrail() {
+        List<Localizacao> trail = List.of(
+                point(77L, 8L, START, -3.7318616, -38.5266704, 21.7, 0.42, 271.3, 9.9, true));
+
+        assertTrail(trail, TrailCodec.decode(TrailCodec.encode(3L, trail)), 3L);
+    }
+
+    @Test
+    void decodeRejectsUnknownVersion() {
+        byte[] data = TrailCodec.encode(1L, List.of(point(1L, 1L, START, 0.0, 0.0, null, null, null, null, true)));
+        data[0] = TrailCodec.VERSION + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> TrailCodec.decode(data));
+    }
+
+    private static Localizacao point(Long id, Long driverId, LocalDateTime timestamp, double latitude, double longitude,
+                                     Double altitude, Double speed, Double heading, Double accuracy, Boolean active) {
+        Localizacao point = new Localizacao(driverId, latitude, longitude);
+        point.setId(id);
+        point.setTimestamp(timestamp);
+        point.setAltitude(altitude);
+        point.setSpeed(speed);
+        point.setHeading(heading);
+        point.setAccuracy(accuracy);
+        point.setIsActive(active);
+        point.setCreatedAt(timestamp.plusNanos(1_500_000));
+        point.setUpdatedAt(timestamp.plusSeconds(30).plusNanos(987_654));
+        return point;
+    }
+
+    private static void assertTrail(List<Localizacao> expected, List<Localizacao> actual, long pedidoId) {
+        List<Localizacao> sorted = expected.stream()
+                .sorted(Comparator.comparing(Localizacao::getTimestamp).thenComparing(Localizacao::getId))
+                .toList();
+        assertEquals(sorted.size(), actual.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            Localizacao want = sorted.get(i);
+            Localizacao got = actual.get(i);
+            assertEquals(pedidoId, got.getPedidoId());
+            assertEquals(want.getId(), got.getId());
+            assertEquals(want.getDriverId(), got.getDriverId());
+            assertEquals(millis(want.getTimestamp()), got.getTimestamp());
+            assertEquals(want.getLatitude(), got.getLatitude(), COORDINATE_TOLERANCE);
+            assertEquals(want.getLongitude(), got.getLongitude(), COORDINATE_TOLERANCE);
+            assertOptional(want.getAltitude(), got.getAltitude(), TENTHS_TOLERANCE);
+            assertOptional(want.getSpeed(), got.getSpeed(), SPEED_TOLERANCE);
+            assertOptional(want.getHeading(), got.getHeading(), TENTHS_TOLERANCE);
+            assertOptional(want.getAccuracy(), got.getAccuracy(), TENTHS_TOLERANCE);
+            assertEquals(Boolean.TRUE.equals(want.getIsActive()), got.getIsActive());
+            assertEquals(millis(want.getCreatedAt()), got.getCreatedAt());
+            assertEquals(millis(want.getUpdatedAt()), got.getUpdatedAt());
+        }
+    }
+
+    private static void assertOptional(Double expected, Double actual, double tolerance) {
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertEquals(expected, actual, tolerance);
+        }
+    }
+
+    private static LocalDateTime millis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.truncatedTo(ChronoUnit.MILLIS) : null;
+    }
+}
@@ -239,4 +239,16 @@ class ClaimPedidoRequest {
       'motoristaId': motoristaId,
     };
   }
-} 
\ No newline at end of file
+}
+
+class PedidoPage {
+  final List<Pedido> pedidos;
+  final String? nextCursor;
+
+  PedidoPage({
+    required this.pedidos,
+    this.nextCursor,
+  });
+
+  bool get hasMore => nextCursor != null;
+}
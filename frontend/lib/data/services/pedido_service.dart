@@ -9,101 +9,65 @@ class PedidoService {
   final AuthService _authService = AuthService();
   final http.Client _client = http.Client();
 
-  Future<List<Pedido>> getAvailablePedidos() async {
+  Future<PedidoPage> getAvailablePedidos({String? cursor}) async {
     try {
-      final headers = await _authService.getAuthHeaders();
-      final response = await _client.get(
-        Uri.parse('$_baseUrl/api/pedidos/available'),
-        headers: headers,
-      );
-
-      if (response.statusCode == 200) {
-        final List<dynamic> jsonList = jsonDecode(response.body);
-        return jsonList.map((json) => Pedido.fromJson(json)).toList();
-      } else {
-        throw Exception('Failed to load available pedidos: ${response.statusCode}');
-      }
+      return await _getPage('/api/pedidos/available', cursor, 'Failed to load available pedidos');
     } catch (e) {
       throw Exception('Error loading available pedidos: $e');
     }
   }
 
-  Future<List<Pedido>> getPedidosByStatus(StatusPedido status) async {
+  Future<PedidoPage> getPedidosByStatus(StatusPedido status, {String? cursor}) async {
     try {
-      final headers = await _authService.getAuthHeaders();
-      final response = await _client.get(
-        Uri.parse('$_baseUrl/api/pedidos/status/${status.name}'),
-        headers: headers,
-      );
-
-      if (response.statusCode == 200) {
-        final List<dynamic> jsonList = jsonDecode(response.body);
-        return jsonList.map((json) => Pedido.fromJson(json)).toList();
-      } else {
-        throw Exception('Failed to load pedidos by status: ${response.statusCode}');
-      }
+      return await _getPage('/api/pedidos/status/${status.name}', cursor, 'Failed to load pedidos by status');
     } catch (e) {
       throw Exception('Error loading pedidos by status: $e');
     }
   }
 
-  Future<List<Pedido>> getPedidosByMotorista(int motoristaId) async {
+  Future<PedidoPage> getPedidosByMotorista(int motoristaId, {String? cursor}) async {
     try {
-      final headers = await _authService.getAuthHeaders();
-      final response = await _client.get(
-        Uri.parse('$_baseUrl/api/pedidos/motorista/$motoristaId'),
-        headers: headers,
-      );
-
-      if (response.statusCode == 200) {
-        final List<dynamic> jsonList = jsonDecode(response.body);
-        return jsonList.map((json) => Pedido.fromJson(json)).toList();
-      } else {
-        throw Exception('Failed to load pedidos by motorista: ${response.statusCode}');
-      }
+      return await _getPage('/api/pedidos/motorista/$motoristaId', cursor, 'Failed to load pedidos by motorista');
     } catch (e) {
       throw Exception('Error loading pedidos by motorista: $e');
     }
   }
 
-  Future<List<Pedido>> getPedidosByCliente(String email) async {
+  Future<PedidoPage> getPedidosByCliente(String email, {String? cursor}) async {
     try {
-      final headers = await _authService.getAuthHeaders();
-      final response = await _client.get(
-        Uri.parse('$_baseUrl/api/pedidos/cliente/$email'),
-        headers: headers,
-      );
-
-      if (response.statusCode == 200) {
-        final List<dynamic> jsonList = jsonDecode(response.body);
-        return jsonList.map((json) => Pedido.fromJson(json)).toList();
-      } else {
-        throw Exception('Failed to load pedidos by cliente: ${response.statusCode}');
-      }
+      return await _getPage('/api/pedidos/cliente/$email', cursor, 'Failed to load pedidos by cliente');
     } catch (e) {
       throw Exception('Error loading pedidos by cliente: $e');
     }
   }
 
-  Future<List<Pedido>> getPedidosByClienteId(int clienteId) async {
+  Future<PedidoPage> getPedidosByClienteId(int clienteId, {String? cursor}) async {
     try {
-      final headers = await _authService.getAuthHeaders();
-      final response = await _client.get(
-        Uri.parse('$_baseUrl/api/pedidos/cliente/id/$clienteId'),
-        headers: headers,
-      );
-
-      if (response.statusCode == 200) {
-        final List<dynamic> jsonList = jsonDecode(response.body);
-        return jsonList.map((json) => Pedido.fromJson(json)).toList();
-      } else {
-        throw Exception('Failed to load pedidos by cliente ID: ${response.statusCode}');
-      }
+      return await _getPage('/api/pedidos/cliente/id/$clienteId', cursor, 'Failed to load pedidos by cliente ID');
     } catch (e) {
       throw Exception('Error loading pedidos by cliente ID: $e');
     }
   }
 
+  // As listagens são paginadas por cursor: cada chamada devolve uma página e
+  // o cursor da próxima (cabeçalho X-Next-Cursor), que a tela só pede quando
+  // o usuário rola até o fim da lista.
+  Future<PedidoPage> _getPage(String path, String? cursor, String errorMessage) async {
+    final headers = await _authService.getAuthHeaders();
+    final uri = Uri.parse('$_baseUrl$path').replace(
+      queryParameters: cursor != null ? {'cursor': cursor} : null,
+    );
+    final response = await _client.get(uri, headers: headers);
+    if (response.statusCode != 200) {
+      throw Exception('$errorMessage: ${response.statusCode}');
+    }
+    final List<dynamic> jsonList = jsonDecode(response.body);
+    return PedidoPage(
+      pedidos: jsonList.map((json) => Pedido.fromJson(json)).toList(),
+      nextCursor: response.headers['x-next-cursor'],
+    );
+  }
+
   Future<Pedido?> getPedidoById(int id) async {
     try {
       final headers = await _authService.getAuthHeaders();
@@ -216,7 +180,7 @@ class PedidoService {
     }
   }
 
-  Future<List<Pedido>> getPedidosForCurrentUser() async {
+  Future<PedidoPage> getPedidosForCurrentUser({String? cursor}) async {
     try {
       final userData = await _authService.getUserData();
       if (userData == null) {
@@ -227,19 +191,22 @@ class PedidoService {
       final userId = userData['userId'];
 
       if (userType == 'DRIVER') {
-        return await getPedidosByMotorista(userId);
+        return await getPedidosByMotorista(userId, cursor: cursor);
       } else {
-        return await getPedidosByClienteId(userId);
+        return await getPedidosByClienteId(userId, cursor: cursor);
       }
     } catch (e) {
       throw Exception('Error loading pedidos for current user: $e');
     }
   }
 
-  Future<List<Pedido>> getPedidosByStatusForCurrentUser(StatusPedido status) async {
+  Future<PedidoPage> getPedidosByStatusForCurrentUser(StatusPedido status, {String? cursor}) async {
     try {
-      final allPedidos = await getPedidosForCurrentUser();
-      return allPedidos.where((pedido) => pedido.status == status).toList();
+      final page = await getPedidosForCurrentUser(cursor: cursor);
+      return PedidoPage(
+        pedidos: page.pedidos.where((pedido) => pedido.status == status).toList(),
+        nextCursor: page.nextCursor,
+      );
     } catch (e) {
       throw Exception('Error loading pedidos by status for current user: $e');
     }
@@ -18,15 +18,20 @@ class _MotoristaEntregasPageState extends State<MotoristaEntregasPage> {
   List<Pedido> _pedidos = [];
   bool _isLoading = true;
   String? _errorMessage;
+  final _scrollController = ScrollController();
+  String? _nextCursor;
+  bool _isLoadingMore = false;
 
   @override
   void initState() {
     super.initState();
+    _scrollController.addListener(_verificarFimDaLista);
     _carregarPedidos();
   }
 
   @override
   void dispose() {
+    _scrollController.dispose();
     _pedidoService.dispose();
     _usuarioService.dispose();
     super.dispose();
@@ -39,11 +44,14 @@ class _MotoristaEntregasPageState extends State<MotoristaEntregasPage> {
     });
 
     try {
-      final pedidos = await _pedidoService.getPedidosForCurrentUser();
-        setState(() {
-        _pedidos = pedidos;
-          _isLoading = false;
-        });
+      final page = await _pedidoService.getPedidosForCurrentUser();
+      setState(() {
+        _pedidos = page.pedidos;
+        _nextCursor = page.nextCursor;
+        _isLoadingMore = false;
+        _isLoading = false;
+      });
+      WidgetsBinding.instance.addPostFrameCallback((_) => _verificarFimDaLista());
     } catch (e) {
       setState(() {
         _errorMessage = 'Erro ao carregar pedidos: $e';
@@ -52,6 +60,45 @@ class _MotoristaEntregasPageState extends State<MotoristaEntregasPage> {
     }
   }
 
+  void _verificarFimDaLista() {
+    if (_scrollController.hasClients && _scrollController.position.extentAfter < 200) {
+      _carregarMaisPedidos();
+    }
+  }
+
+  Future<void> _carregarMaisPedidos() async {
+    final cursor = _nextCursor;
+    if (cursor == null || _isLoadingMore) {
+      return;
+    }
+
+    setState(() {
+      _isLoadingMore = true;
+    });
+
+    try {
+      final page = await _pedidoService.getPedidosForCurrentUser(cursor: cursor);
+      if (!mounted || cursor != _nextCursor) {
+        return;
+      }
+      setState(() {
+        _pedidos = [..._pedidos, ...page.pedidos];
+        _nextCursor = page.nextCursor;
+        _isLoadingMore = false;
+      });
+      WidgetsBinding.instance.addPostFrameCallback((_) => _verificarFimDaLista());
+    } catch (e) {
+      if (mounted) {
+        setState(() {
+          _isLoadingMore = false;
+        });
+        ScaffoldMessenger.of(context).showSnackBar(
+          SnackBar(content: Text('Erro ao carregar mais pedidos: $e')),
+        );
+      }
+    }
+  }
+
   @override
   Widget build(BuildContext context) {
     if (_isLoading) {
@@ -115,8 +162,15 @@ class _MotoristaEntregasPageState extends State<MotoristaEntregasPage> {
       body: RefreshIndicator(
         onRefresh: _carregarPedidos,
       child: ListView.builder(
-          itemCount: _pedidos.length,
+          controller: _scrollController,
+          itemCount: _pedidos.length + (_nextCursor != null ? 1 : 0),
         itemBuilder: (context, index) {
+            if (index == _pedidos.length) {
+              return const Padding(
+                padding: EdgeInsets.all(16.0),
+                child: Center(child: CircularProgressIndicator()),
+              );
+            }
             final pedido = _pedidos[index];
           return Card(
             margin: const EdgeInsets.symmetric(horizontal: 16, vertical: 8),
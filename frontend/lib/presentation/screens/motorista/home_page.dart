@@ -91,7 +91,10 @@ class _MotoristaHomePageState extends State<MotoristaHomePage> {
         throw Exception('ID do usuário não encontrado');
       }
 
-      final pedidos = await _pedidoService.getPedidosByMotorista(userId);
+      // O resumo da tela inicial usa só a primeira página; a lista completa,
+      // carregada sob demanda, fica em Meus Pedidos.
+      final page = await _pedidoService.getPedidosByMotorista(userId);
+      final pedidos = page.pedidos;
       setState(() {
         _pedidosAssigned = pedidos;
         _markers = pedidos.map((pedido) {
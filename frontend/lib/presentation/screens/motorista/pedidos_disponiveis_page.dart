@@ -18,16 +18,21 @@ class _PedidosDisponiveisPageState extends State<PedidosDisponiveisPage> {
   List<Pedido> _pedidos = [];
   bool _isLoading = true;
   String? _errorMessage;
+  final _scrollController = ScrollController();
+  String? _nextCursor;
+  bool _isLoadingMore = false;
   Map<int, bool> _acceptingPedidos = {};
 
   @override
   void initState() {
     super.initState();
+    _scrollController.addListener(_verificarFimDaLista);
     _carregarPedidosDisponiveis();
   }
 
   @override
   void dispose() {
+    _scrollController.dispose();
     _pedidoService.dispose();
     _authService.dispose();
     super.dispose();
@@ -40,11 +45,14 @@ class _PedidosDisponiveisPageState extends State<PedidosDisponiveisPage> {
     });
 
     try {
-      final pedidos = await _pedidoService.getAvailablePedidos();
+      final page = await _pedidoService.getAvailablePedidos();
       setState(() {
-        _pedidos = pedidos;
+        _pedidos = page.pedidos;
+        _nextCursor = page.nextCursor;
+        _isLoadingMore = false;
         _isLoading = false;
       });
+      WidgetsBinding.instance.addPostFrameCallback((_) => _verificarFimDaLista());
     } catch (e) {
       setState(() {
         _errorMessage = 'Erro ao carregar pedidos disponíveis: $e';
@@ -53,6 +61,45 @@ class _PedidosDisponiveisPageState extends State<PedidosDisponiveisPage> {
     }
   }
 
+  void _verificarFimDaLista() {
+    if (_scrollController.hasClients && _scrollController.position.extentAfter < 200) {
+      _carregarMaisPedidos();
+    }
+  }
+
+  Future<void> _carregarMaisPedidos() async {
+    final cursor = _nextCursor;
+    if (cursor == null || _isLoadingMore) {
+      return;
+    }
+
+    setState(() {
+      _isLoadingMore = true;
+    });
+
+    try {
+      final page = await _pedidoService.getAvailablePedidos(cursor: cursor);
+      if (!mounted || cursor != _nextCursor) {
+        return;
+      }
+      setState(() {
+        _pedidos = [..._pedidos, ...page.pedidos];
+        _nextCursor = page.nextCursor;
+        _isLoadingMore = false;
+      });
+      WidgetsBinding.instance.addPostFrameCallback((_) => _verificarFimDaLista());
+    } catch (e) {
+      if (mounted) {
+        setState(() {
+          _isLoadingMore = false;
+        });
+        ScaffoldMessenger.of(context).showSnackBar(
+          SnackBar(content: Text('Erro ao carregar mais pedidos: $e')),
+        );
+      }
+    }
+  }
+
   Future<void> _aceitarPedido(Pedido pedido) async {
     if (!pedido.canBeAccepted) {
       ScaffoldMessenger.of(context).showSnackBar(
@@ -193,8 +240,15 @@ class _PedidosDisponiveisPageState extends State<PedidosDisponiveisPage> {
       body: RefreshIndicator(
         onRefresh: _carregarPedidosDisponiveis,
         child: ListView.builder(
-          itemCount: _pedidos.length,
+          controller: _scrollController,
+          itemCount: _pedidos.length + (_nextCursor != null ? 1 : 0),
           itemBuilder: (context, index) {
+            if (index == _pedidos.length) {
+              return const Padding(
+                padding: EdgeInsets.all(16.0),
+                child: Center(child: CircularProgressIndicator()),
+              );
+            }
             final pedido = _pedidos[index];
             final isAccepting = _acceptingPedidos[pedido.id!] ?? false;
             